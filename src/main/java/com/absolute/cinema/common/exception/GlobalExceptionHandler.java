@@ -1,6 +1,7 @@
 package com.absolute.cinema.common.exception;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
+import com.absolute.cinema.common.exception.custom.ConflictException;
 import com.absolute.cinema.common.exception.custom.ForbiddenException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
 import com.absolute.cinema.common.exception.custom.UnauthorizedException;
@@ -76,6 +77,13 @@ public class GlobalExceptionHandler {
                 .body(new ErrorDTO(HttpStatus.FORBIDDEN.value(), List.of(ex.getMessage())));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorDTO> handleConflictException(ConflictException ex, WebRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ErrorDTO(HttpStatus.CONFLICT.value(), List.of(ex.getMessage())));
+    }
+
     @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
     public ResponseEntity<ErrorDTO> handleHttpMediaTypeNotAcceptableException(HttpMediaTypeNotAcceptableException ex, WebRequest request) {
         return ResponseEntity
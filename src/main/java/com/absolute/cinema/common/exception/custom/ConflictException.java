@@ -0,0 +1,7 @@
+package com.absolute.cinema.common.exception.custom;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
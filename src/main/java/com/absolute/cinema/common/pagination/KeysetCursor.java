@@ -0,0 +1,59 @@
+package com.absolute.cinema.common.pagination;
+
+import com.absolute.cinema.common.exception.custom.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque position for keyset pagination: the sort timestamp and id of the last row on a page.
+ * The next page continues strictly after {@code (at, id)} in the listing's order, so deep pages
+ * cost the same index seek as the first one.
+ */
+public record KeysetCursor(Instant at, UUID id) {
+
+    /** Position before every row of an ascending listing. */
+    public static final KeysetCursor ASCENDING_START = new KeysetCursor(Instant.EPOCH, new UUID(0L, 0L));
+
+    /** Position before every row of a descending listing. */
+    public static final KeysetCursor DESCENDING_START =
+            new KeysetCursor(Instant.parse("9999-12-31T23:59:59Z"), new UUID(-1L, -1L));
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Decodes a cursor returned in {@code nextCursor}; a blank value starts from {@code start}.
+     */
+    public static KeysetCursor parse(String cursor, KeysetCursor start) {
+        if (cursor == null || cursor.isBlank()) {
+            return start;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new KeysetCursor(
+                    Instant.parse(decoded.substring(0, separator)),
+                    UUID.fromString(decoded.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Cursor of the last row on the page when the listing, fetched with one extra row, continues past {@code size}.
+     */
+    public static <T> String next(List<T> rows, int size, Function<T, KeysetCursor> position) {
+        return rows.size() > size ? position.apply(rows.get(size - 1)).encode() : null;
+    }
+
+    public String encode() {
+        String raw = at.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
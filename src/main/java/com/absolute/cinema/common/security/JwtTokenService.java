@@ -3,10 +3,16 @@ package com.absolute.cinema.common.security;
 import com.absolute.cinema.entity.Token;
 import com.absolute.cinema.entity.User;
 import com.absolute.cinema.repository.TokenRepository;
+import com.absolute.cinema.service.impl.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,9 +23,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 @Component
@@ -34,22 +46,53 @@ public class JwtTokenService {
     @Value("${jwt.access-expiration-ms}")
     private long accessExpirationMs;
 
+    @Value("${jwt.principal-cache-ttl-ms:60000}")
+    private long principalCacheTtlMs;
+
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
     private final TokenRepository tokenRepository;
 
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, AuthenticatedToken> authenticatedTokens;
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record AuthenticatedToken(UserDetails principal, UUID userId, Instant expiresAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(jwtSecret));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+
+        Duration maxTtl = Duration.ofMillis(principalCacheTtlMs);
+        authenticatedTokens = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_TOKENS)
+                .expireAfter(Expiry.creating((String token, AuthenticatedToken entry) -> {
+                    Duration untilExpiry = Duration.between(Instant.now(), entry.expiresAt());
+                    return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+                }))
+                .build();
+    }
+
     public String generateToken(User user) {
         String primaryRole = user.getRoles().stream()
                 .findFirst()
                 .map(role -> role.getRole().name())
                 .orElse("UNKNOWN");
 
+        // A random jti keeps tokens issued to the same user within one second distinct,
+        // so their hashes never collide on the unique index
         return Jwts
                 .builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
                 .claim("role", primaryRole)
                 .claim("userId", user.getId())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + accessExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -63,37 +106,81 @@ public class JwtTokenService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    public boolean isValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
+    /**
+     * Resolves the principal for a bearer token. Tokens validated recently are answered from memory;
+     * otherwise the token is parsed once, the user is loaded and the token is checked against the database.
+     * A validation that overlaps an eviction is not cached, so it cannot bring back a principal or token
+     * that the eviction dropped. Returns {@code null} if the token is well-formed but not valid for authentication.
+     */
+    public UserDetails authenticate(String token, Function<String, UserDetails> userLoader) {
+        AuthenticatedToken cached = authenticatedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached.principal();
+        }
+
+        long seenEvictions = evictions.get();
+        Claims claims = extractAllClaims(token);
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+
+        UserDetails principal = userLoader.apply(username);
+        if (!isValid(token, claims, principal)) {
+            return null;
+        }
+
+        UUID userId = principal instanceof User user ? user.getId() : null;
+        AuthenticatedToken authenticated = new AuthenticatedToken(principal, userId, claims.getExpiration().toInstant());
+        authenticatedTokens.asMap().compute(token,
+                (key, current) -> evictions.get() == seenEvictions ? authenticated : current);
+        return principal;
+    }
+
+    /**
+     * Drops the cached principals of the user once the surrounding transaction commits, so that validations
+     * running meanwhile cannot cache the state the transaction is replacing.
+     */
+    public void evictAuthenticatedTokens(UUID userId) {
+        TransactionHooks.afterCommit(() -> evict(
+                () -> authenticatedTokens.asMap().values().removeIf(entry -> userId.equals(entry.userId()))));
+    }
+
+    // Bumping the counter first makes validations that started before the eviction skip caching their result
+    private void evict(Runnable removal) {
+        evictions.incrementAndGet();
+        removal.run();
+    }
+
+    private boolean isValid(String token, Claims claims, UserDetails userDetails) {
         boolean isTokenInDatabase = tokenRepository
-                .findByAccessToken(token)
+                .findByAccessTokenHash(hash(token))
                 .map(t -> !t.isLoggedOut())
                 .orElse(false);
         
-        return username.equals(userDetails.getUsername()) 
-               && !isTokenExpired(token) 
+        return claims.getSubject().equals(userDetails.getUsername())
+               && claims.getExpiration().after(new Date())
                && isTokenInDatabase;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     private Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Tokens are stored and looked up by their SHA-256 digest, never in clear text.
+     */
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     @Scheduled(fixedRateString = "${jwt.expired-tokens-cleanup-ms}")
@@ -103,11 +190,12 @@ public class JwtTokenService {
     }
 
     public void revokeToken(String accessToken) {
-        tokenRepository.findByAccessToken(accessToken)
+        tokenRepository.findByAccessTokenHash(hash(accessToken))
                 .ifPresent(token -> {
                     token.setLoggedOut(true);
                     tokenRepository.save(token);
                 });
+        TransactionHooks.afterCommit(() -> evict(() -> authenticatedTokens.invalidate(accessToken)));
     }
 
     public void revokeAllTokens(User user) {
@@ -116,11 +204,12 @@ public class JwtTokenService {
             token.setLoggedOut(true);
             tokenRepository.save(token);
         });
+        evictAuthenticatedTokens(user.getId());
     }
 
     public Token saveToken(User user, String accessToken) {
         Token token = new Token();
-        token.setAccessToken(accessToken);
+        token.setAccessTokenHash(hash(accessToken));
         token.setUser(user);
         token.setLoggedOut(false);
         token.setExpirationDate(extractExpiration(accessToken).toInstant());
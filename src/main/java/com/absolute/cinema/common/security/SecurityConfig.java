@@ -56,6 +56,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/films/{id}").hasAuthority("ADMIN")
 
                         .requestMatchers(HttpMethod.GET, "/films/{id}/reviews").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/films/{id}/rating").permitAll()
                         .requestMatchers(HttpMethod.POST, "/films/{id}/reviews").authenticated()
                         .requestMatchers(HttpMethod.GET, "/reviews/{id}").permitAll()
                         .requestMatchers(HttpMethod.PUT, "/reviews/{id}").authenticated()
@@ -71,6 +72,7 @@ public class SecurityConfig {
 
                         .requestMatchers(HttpMethod.GET, "/sessions").permitAll()
                         .requestMatchers(HttpMethod.POST, "/sessions").hasAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/sessions/periodic").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/sessions/{id}").permitAll()
                         .requestMatchers(HttpMethod.PUT, "/sessions/{id}").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/sessions/{id}").hasAuthority("ADMIN")
@@ -81,7 +83,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/seat-categories/{id}").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/seat-categories/{id}").hasAuthority("ADMIN")
 
+                        .requestMatchers(HttpMethod.POST, "/sessions/{sessionId}/tickets/reserve").authenticated()
                         .requestMatchers("/sessions/{sessionId}/tickets").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/sessions/{sessionId}/seat-map").permitAll()
                         .requestMatchers("/tickets/{id}/reserve").authenticated()
                         .requestMatchers("/tickets/{id}/cancel-reservation").authenticated()
 
@@ -1,14 +1,17 @@
 package com.absolute.cinema.controller;
 
+import com.absolute.cinema.dto.CatalogEntryDTO;
 import com.absolute.cinema.dto.CreateFilmDTO;
 import com.absolute.cinema.dto.FilmDTO;
-import com.absolute.cinema.dto.FilmPagedListDTO;
 import com.absolute.cinema.dto.UpdateFilmDTO;
 import com.absolute.cinema.service.FilmService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -21,11 +24,13 @@ public class FilmController {
     private final FilmService filmService;
 
     @GetMapping
-    public ResponseEntity<FilmPagedListDTO> getAllFilms(
+    public ResponseEntity<byte[]> getAllFilms(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(filmService.getFilms(page, size));
+        return catalogResponse(filmService.getCatalogPage(page, cursor, size), request);
     }
 
     @PostMapping
@@ -36,10 +41,11 @@ public class FilmController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<FilmDTO> getFilmById(
-            @PathVariable UUID id
+    public ResponseEntity<byte[]> getFilmById(
+            @PathVariable UUID id,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(filmService.getFilmById(id));
+        return catalogResponse(filmService.getCatalogFilm(id), request);
     }
 
     @PutMapping("/{id}")
@@ -57,4 +63,17 @@ public class FilmController {
         filmService.deleteFilm(id);
         return ResponseEntity.ok().build();
     }
+
+    private ResponseEntity<byte[]> catalogResponse(CatalogEntryDTO entry, WebRequest request) {
+        if (request.checkNotModified(entry.eTag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                // Shared caches may keep the catalog but must revalidate it against the ETag
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .eTag(entry.eTag())
+                .body(entry.json());
+    }
 }
@@ -23,8 +23,12 @@ public class HallController {
     @GetMapping
     public HallPagedListDTO list(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return hallService.getAllAfter(cursor, size);
+        }
         return hallService.getAll(page, size);
     }
 
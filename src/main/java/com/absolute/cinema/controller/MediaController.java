@@ -1,16 +1,26 @@
 package com.absolute.cinema.controller;
 
+import com.absolute.cinema.dto.MediaContentDTO;
 import com.absolute.cinema.dto.MediaDTO;
 import com.absolute.cinema.entity.Media;
 import com.absolute.cinema.service.MediaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.UUID;
 
 @RestController
@@ -31,21 +41,39 @@ public class MediaController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> getMedia(@PathVariable UUID id) {
-        Media media = mediaService.getMediaById(id);
-        
-        HttpHeaders headers = new HttpHeaders();
-        try {
-            headers.setContentType(MediaType.parseMediaType(media.getContentType()));
-        } catch (Exception e) {
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+    public ResponseEntity<StreamingResponseBody> getMedia(
+            @PathVariable UUID id,
+            @RequestParam(name = "w", required = false) Integer width,
+            WebRequest request
+    ) {
+        MediaContentDTO media = getContent(id, width);
+
+        if (request.checkNotModified(media.eTag(), media.updatedAt().getTime())) {
+            return null;
         }
-        headers.setContentLength(media.getContent().length);
-        headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + media.getFilename() + "\"");
-        
+
+        HttpHeaders headers = contentHeaders(media);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentLength(media.contentLength());
+
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(media.getContent());
+                .body(out -> transferTo(media.content(), out));
+    }
+
+    @GetMapping(value = "/{id}", headers = HttpHeaders.RANGE)
+    public ResponseEntity<Resource> getMediaRange(
+            @PathVariable UUID id,
+            @RequestParam(name = "w", required = false) Integer width
+    ) {
+        MediaContentDTO media = getContent(id, width);
+
+        // Range requests (206) and conditional requests (304) are resolved by Spring from these headers
+        return ResponseEntity.ok()
+                .headers(contentHeaders(media))
+                .eTag(media.eTag())
+                .lastModified(media.updatedAt().toInstant())
+                .body(media.content());
     }
 
     @GetMapping("/{id}/info")
@@ -59,4 +87,39 @@ public class MediaController {
         mediaService.deleteMedia(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static HttpHeaders contentHeaders(MediaContentDTO media) {
+        HttpHeaders headers = new HttpHeaders();
+        try {
+            headers.setContentType(MediaType.parseMediaType(media.contentType()));
+        } catch (Exception e) {
+            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        }
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + media.filename() + "\"");
+        return headers;
+    }
+
+    private MediaContentDTO getContent(UUID id, Integer width) {
+        return width == null ? mediaService.getMediaContent(id) : mediaService.getMediaVariant(id, width);
+    }
+
+    /**
+     * File-backed content is copied with {@link FileChannel#transferTo}. This is not zero-copy: the servlet
+     * output stream is not a channel the kernel can send a file to, so the JDK still copies through a small
+     * temporary buffer; it only saves wrapping the file in another buffered stream.
+     */
+    private static void transferTo(Resource content, OutputStream out) throws IOException {
+        try (ReadableByteChannel channel = content.readableChannel()) {
+            if (channel instanceof FileChannel file) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long size = file.size();
+                long position = 0;
+                while (position < size) {
+                    position += file.transferTo(position, size - position, target);
+                }
+            } else {
+                Channels.newInputStream(channel).transferTo(out);
+            }
+        }
+    }
 }
\ No newline at end of file
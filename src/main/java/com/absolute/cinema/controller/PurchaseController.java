@@ -25,8 +25,12 @@ public class PurchaseController {
     public ResponseEntity<PurchasePagedListDTO> getAllMyPurchases(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             @AuthenticationPrincipal User user
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(purchaseService.getPurchasesForClientAfter(cursor, size, user.getId()));
+        }
         return ResponseEntity.ok(purchaseService.getPurchasesForClient(page, size, user.getId()));
     }
 
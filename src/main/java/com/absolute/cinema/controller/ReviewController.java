@@ -1,13 +1,16 @@
 package com.absolute.cinema.controller;
 
+import com.absolute.cinema.dto.review.FilmRatingDTO;
 import com.absolute.cinema.dto.review.ReviewCreateDTO;
 import com.absolute.cinema.dto.review.ReviewDTO;
 import com.absolute.cinema.dto.review.ReviewPagedListDTO;
 import com.absolute.cinema.dto.review.ReviewUpdateDTO;
+import com.absolute.cinema.entity.User;
 import com.absolute.cinema.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
@@ -27,9 +30,18 @@ public class ReviewController {
         return reviewService.getFilmReviews(filmId, page, size);
     }
 
+    @GetMapping("/films/{filmId}/rating")
+    public FilmRatingDTO getFilmRating(@PathVariable UUID filmId) {
+        return reviewService.getFilmRating(filmId);
+    }
+
     @PostMapping("/films/{filmId}/reviews")
-    public ReviewDTO create(@PathVariable UUID filmId, @Valid @RequestBody ReviewCreateDTO dto) {
-        return reviewService.create(filmId, dto);
+    public ReviewDTO create(
+            @PathVariable UUID filmId,
+            @Valid @RequestBody ReviewCreateDTO dto,
+            @AuthenticationPrincipal User user
+    ) {
+        return reviewService.create(filmId, dto, user);
     }
 
     @GetMapping("/reviews/{id}")
@@ -38,13 +50,17 @@ public class ReviewController {
     }
 
     @PutMapping("/reviews/{id}")
-    public ReviewDTO update(@PathVariable UUID id, @Valid @RequestBody ReviewUpdateDTO dto) {
-        return reviewService.update(id, dto);
+    public ReviewDTO update(
+            @PathVariable UUID id,
+            @Valid @RequestBody ReviewUpdateDTO dto,
+            @AuthenticationPrincipal User user
+    ) {
+        return reviewService.update(id, dto, user);
     }
 
     @DeleteMapping("/reviews/{id}")
-    public ResponseEntity<Void> delete(@PathVariable UUID id) {
-        reviewService.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable UUID id, @AuthenticationPrincipal User user) {
+        reviewService.delete(id, user);
         return ResponseEntity.noContent().build();
     }
 }
@@ -2,6 +2,7 @@ package com.absolute.cinema.controller;
 
 import com.absolute.cinema.dto.CreateSessionDTO;
 import com.absolute.cinema.dto.EditSessionDTO;
+import com.absolute.cinema.dto.PeriodicSessionsResultDTO;
 import com.absolute.cinema.dto.SessionDTO;
 import com.absolute.cinema.dto.SessionPagedListDTO;
 import com.absolute.cinema.service.SessionService;
@@ -27,8 +28,12 @@ public class SessionController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) UUID filmId,
-            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date date
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") Date date,
+            @RequestParam(required = false) String cursor
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(sessionService.getSessionsAfter(cursor, size, filmId, date));
+        }
         return ResponseEntity.ok(sessionService.getSessions(page, size, filmId, date));
     }
 
@@ -39,6 +44,13 @@ public class SessionController {
         return ResponseEntity.ok(sessionService.createSession(createSessionDTO));
     }
 
+    @PostMapping("/periodic")
+    public ResponseEntity<PeriodicSessionsResultDTO> createPeriodicSessions(
+            @RequestBody @Valid CreateSessionDTO createSessionDTO
+    ) {
+        return ResponseEntity.ok(sessionService.createPeriodicSessions(createSessionDTO));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SessionDTO> getSession(
             @PathVariable UUID id
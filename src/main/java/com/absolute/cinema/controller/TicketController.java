@@ -1,10 +1,15 @@
 package com.absolute.cinema.controller;
 
+import com.absolute.cinema.dto.ReserveTicketsDTO;
 import com.absolute.cinema.dto.TicketDTO;
+import com.absolute.cinema.dto.TicketReservationResultDTO;
 import com.absolute.cinema.entity.Ticket;
 import com.absolute.cinema.entity.User;
 import com.absolute.cinema.service.TicketService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +32,13 @@ public class TicketController {
         return ResponseEntity.ok(ticketService.getTicketsForSession(sessionId, status));
     }
 
+    @GetMapping(value = "/sessions/{sessionId}/seat-map", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getSeatMap(
+            @PathVariable UUID sessionId
+    ) {
+        return ResponseEntity.ok(ticketService.getSeatMap(sessionId));
+    }
+
     @PostMapping("/tickets/{id}/reserve")
     public ResponseEntity<TicketDTO> reserveTicket(
             @PathVariable UUID id,
@@ -35,6 +47,17 @@ public class TicketController {
         return ResponseEntity.ok(ticketService.reserveTicket(id, user));
     }
 
+    @PostMapping("/sessions/{sessionId}/tickets/reserve")
+    public ResponseEntity<TicketReservationResultDTO> reserveTickets(
+            @PathVariable UUID sessionId,
+            @RequestBody @Valid ReserveTicketsDTO reserveTicketsDTO,
+            @AuthenticationPrincipal User user
+    ) {
+        TicketReservationResultDTO result = ticketService.reserveTickets(sessionId, reserveTicketsDTO.ticketIds(), user);
+        HttpStatus status = result.conflicts().isEmpty() ? HttpStatus.OK : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(result);
+    }
+
     @PostMapping("/tickets/{id}/cancel-reservation")
     public ResponseEntity<TicketDTO> cancelReservation(
             @PathVariable UUID id,
@@ -0,0 +1,7 @@
+package com.absolute.cinema.dto;
+
+public record CatalogEntryDTO(
+        byte[] json,
+        String eTag
+) {
+}
@@ -1,5 +1,6 @@
 package com.absolute.cinema.dto;
 
+import com.absolute.cinema.dto.review.FilmRatingDTO;
 import com.absolute.cinema.entity.Film;
 
 import java.util.Date;
@@ -12,6 +13,7 @@ public record FilmDTO(
         Integer durationMinutes,
         Film.AgeRating ageRating,
         MediaDTO poster,
+        FilmRatingDTO rating,
         Date createdAt,
         Date updatedAt
 ) {
@@ -0,0 +1,17 @@
+package com.absolute.cinema.dto;
+
+import org.springframework.core.io.Resource;
+
+import java.util.Date;
+import java.util.UUID;
+
+public record MediaContentDTO(
+        UUID id,
+        String filename,
+        String contentType,
+        long contentLength,
+        Date updatedAt,
+        String eTag,
+        Resource content
+) {
+}
@@ -1,9 +1,16 @@
 package com.absolute.cinema.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PageDTO(
         Integer page,
         Integer limit,
         Integer total,
-        Integer pages
+        Integer pages,
+        String nextCursor
 ) {
+    public PageDTO(Integer page, Integer limit, Integer total, Integer pages) {
+        this(page, limit, total, pages, null);
+    }
 }
@@ -0,0 +1,9 @@
+package com.absolute.cinema.dto;
+
+import java.util.List;
+
+public record PeriodicSessionsResultDTO(
+        List<SessionDTO> created,
+        List<SessionSlotConflictDTO> conflicts
+) {
+}
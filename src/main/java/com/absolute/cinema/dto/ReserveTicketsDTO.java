@@ -0,0 +1,17 @@
+package com.absolute.cinema.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ReserveTicketsDTO(
+
+        @NotEmpty(message = "At least one ticket must be reserved")
+        @NotNull(message = "Ticket IDs cannot be null")
+        @Size(max = 50, message = "At most 50 tickets can be reserved at once")
+        List<UUID> ticketIds
+) {
+}
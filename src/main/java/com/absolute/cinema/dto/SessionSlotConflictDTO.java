@@ -0,0 +1,11 @@
+package com.absolute.cinema.dto;
+
+import java.util.Date;
+import java.util.UUID;
+
+public record SessionSlotConflictDTO(
+        Date startAt,
+        UUID conflictingSessionId,
+        String reason
+) {
+}
@@ -0,0 +1,12 @@
+package com.absolute.cinema.dto;
+
+import com.absolute.cinema.entity.Ticket;
+
+import java.util.UUID;
+
+public record TicketConflictDTO(
+        UUID ticketId,
+        Ticket.Status status,
+        String reason
+) {
+}
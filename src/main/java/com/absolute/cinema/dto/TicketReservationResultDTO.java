@@ -0,0 +1,9 @@
+package com.absolute.cinema.dto;
+
+import java.util.List;
+
+public record TicketReservationResultDTO(
+        List<TicketDTO> reserved,
+        List<TicketConflictDTO> conflicts
+) {
+}
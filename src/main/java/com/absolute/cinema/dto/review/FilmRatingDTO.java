@@ -0,0 +1,12 @@
+package com.absolute.cinema.dto.review;
+
+import java.util.List;
+import java.util.UUID;
+
+public record FilmRatingDTO(
+        UUID filmId,
+        int count,
+        Double average,
+        List<Integer> histogram
+) {
+}
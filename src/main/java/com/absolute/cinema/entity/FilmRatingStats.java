@@ -0,0 +1,45 @@
+package com.absolute.cinema.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "film_rating_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class FilmRatingStats {
+
+    @Id
+    @Column(name = "film_id")
+    private UUID filmId;
+
+    @Column(name = "review_count", nullable = false)
+    private int reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private int ratingSum;
+
+    @Column(name = "rating_1", nullable = false)
+    private int rating1;
+
+    @Column(name = "rating_2", nullable = false)
+    private int rating2;
+
+    @Column(name = "rating_3", nullable = false)
+    private int rating3;
+
+    @Column(name = "rating_4", nullable = false)
+    private int rating4;
+
+    @Column(name = "rating_5", nullable = false)
+    private int rating5;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -33,8 +33,11 @@ public class Media {
     @Column(name = "media_type", nullable = false)
     private MediaType mediaType;
 
-    @Column(name = "content", nullable = false, columnDefinition = "bytea")
-    private byte[] content;
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
+
+    @Column(name = "content_length", nullable = false)
+    private Long contentLength;
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
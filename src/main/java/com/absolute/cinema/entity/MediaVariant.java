@@ -0,0 +1,41 @@
+package com.absolute.cinema.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "media_variants",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"media_id", "width"}))
+public class MediaVariant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "media_id")
+    private Media media;
+
+    @Column(nullable = false)
+    private Integer width;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "content_length", nullable = false)
+    private Long contentLength;
+
+    @Column(name = "storage_key", nullable = false, length = 64)
+    private String storageKey;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Date createdAt;
+}
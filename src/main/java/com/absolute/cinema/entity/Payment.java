@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.OffsetDateTime;
 import java.util.Date;
 import java.util.UUID;
 
@@ -15,7 +16,7 @@ import java.util.UUID;
 @Table(name = "payments")
 public class Payment {
 
-    public enum Status { SUCCESS, FAILED, PENDING }
+    public enum Status { SUCCESS, FAILED, PENDING, REFUND_REQUIRED }
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -29,6 +30,21 @@ public class Payment {
     @Column(nullable = false)
     private Status status;
 
+    @Column(name = "amount_cents", nullable = false)
+    private Integer amountCents;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private int maxAttempts;
+
+    @Column(name = "next_attempt_at")
+    private OffsetDateTime nextAttemptAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Date createdAt;
@@ -36,6 +36,9 @@ public class Purchase {
     @Column(name = "total_cents", nullable = false)
     private Integer totalCents;
 
+    @Column(name = "ticket_count", nullable = false)
+    private int ticketCount;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Status status = Status.PENDING;
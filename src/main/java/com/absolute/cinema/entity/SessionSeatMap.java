@@ -0,0 +1,30 @@
+package com.absolute.cinema.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "session_seat_map")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SessionSeatMap {
+
+    @Id
+    @Column(name = "session_id")
+    private UUID sessionId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -62,6 +62,10 @@ public class User implements UserDetails {
     @Column(name = "age")
     private Integer age;
 
+    public boolean hasRole(Role.RoleType roleType) {
+        return roles.stream().anyMatch(role -> role.getRole() == roleType);
+    }
+
     @Override public Collection<? extends GrantedAuthority> getAuthorities() {
         return roles.stream()
                 .map(role -> new SimpleGrantedAuthority(role.getRole().name()))
@@ -2,6 +2,7 @@ package com.absolute.cinema.mapper;
 
 import com.absolute.cinema.dto.CreateFilmDTO;
 import com.absolute.cinema.dto.FilmDTO;
+import com.absolute.cinema.dto.review.FilmRatingDTO;
 import com.absolute.cinema.entity.Film;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -11,5 +12,6 @@ public interface FilmMapper {
     @Mapping(target = "poster", ignore = true)
     Film toFilm(CreateFilmDTO createFilmDTO);
     
-    FilmDTO toDTO(Film film);
+    @Mapping(target = "rating", source = "rating")
+    FilmDTO toDTO(Film film, FilmRatingDTO rating);
 }
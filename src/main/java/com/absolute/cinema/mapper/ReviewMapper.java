@@ -1,13 +1,30 @@
 package com.absolute.cinema.mapper;
 
+import com.absolute.cinema.dto.review.FilmRatingDTO;
 import com.absolute.cinema.dto.review.ReviewDTO;
+import com.absolute.cinema.entity.FilmRatingStats;
 import com.absolute.cinema.entity.Review;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.List;
+import java.util.UUID;
+
 @Mapper(componentModel = "spring")
 public interface ReviewMapper {
     @Mapping(target = "filmId", source = "film.id")
     @Mapping(target = "clientId", source = "client.id")
     ReviewDTO toDTO(Review entity);
+
+    default FilmRatingDTO toRatingDTO(UUID filmId, FilmRatingStats stats) {
+        if (stats == null || stats.getReviewCount() == 0) {
+            return new FilmRatingDTO(filmId, 0, null, List.of(0, 0, 0, 0, 0));
+        }
+        return new FilmRatingDTO(
+                filmId,
+                stats.getReviewCount(),
+                (double) stats.getRatingSum() / stats.getReviewCount(),
+                List.of(stats.getRating1(), stats.getRating2(), stats.getRating3(), stats.getRating4(), stats.getRating5())
+        );
+    }
 }
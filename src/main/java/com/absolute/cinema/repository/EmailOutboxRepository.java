@@ -0,0 +1,49 @@
+package com.absolute.cinema.repository;
+
+import com.absolute.cinema.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE EmailOutbox e
+            SET e.status = com.absolute.cinema.entity.EmailOutbox.Status.SENT, e.sentAt = :sentAt, e.lastError = null
+            WHERE e.id = :id
+            """)
+    void markSent(@Param("id") UUID id, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE EmailOutbox e
+            SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error
+            WHERE e.id = :id
+            """)
+    void markAttemptFailed(
+            @Param("id") UUID id,
+            @Param("status") EmailOutbox.Status status,
+            @Param("nextAttemptAt") Instant nextAttemptAt,
+            @Param("error") String error
+    );
+}
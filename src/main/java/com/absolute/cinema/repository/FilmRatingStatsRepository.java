@@ -0,0 +1,38 @@
+package com.absolute.cinema.repository;
+
+import com.absolute.cinema.entity.FilmRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface FilmRatingStatsRepository extends JpaRepository<FilmRatingStats, UUID> {
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into film_rating_stats (film_id, review_count, rating_sum,
+                                           rating_1, rating_2, rating_3, rating_4, rating_5, updated_at)
+            values (:filmId, :count, :sum, :r1, :r2, :r3, :r4, :r5, current_timestamp)
+            on conflict (film_id) do update
+               set review_count = film_rating_stats.review_count + excluded.review_count,
+                   rating_sum = film_rating_stats.rating_sum + excluded.rating_sum,
+                   rating_1 = film_rating_stats.rating_1 + excluded.rating_1,
+                   rating_2 = film_rating_stats.rating_2 + excluded.rating_2,
+                   rating_3 = film_rating_stats.rating_3 + excluded.rating_3,
+                   rating_4 = film_rating_stats.rating_4 + excluded.rating_4,
+                   rating_5 = film_rating_stats.rating_5 + excluded.rating_5,
+                   updated_at = excluded.updated_at
+            """, nativeQuery = true)
+    int applyDelta(@Param("filmId") UUID filmId,
+                   @Param("count") int count,
+                   @Param("sum") int sum,
+                   @Param("r1") int r1,
+                   @Param("r2") int r2,
+                   @Param("r3") int r3,
+                   @Param("r4") int r4,
+                   @Param("r5") int r5);
+}
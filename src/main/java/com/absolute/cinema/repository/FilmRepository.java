@@ -1,11 +1,39 @@
 package com.absolute.cinema.repository;
 
 import com.absolute.cinema.entity.Film;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface FilmRepository extends JpaRepository<Film, UUID> {
+
+    @Override
+    @EntityGraph(attributePaths = "poster")
+    Page<Film> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = "poster")
+    Optional<Film> findById(UUID id);
+
+    @EntityGraph(attributePaths = "poster")
+    @Query("""
+            select f from Film f
+             where (f.createdAt, f.id) < (:createdAt, :id)
+             order by f.createdAt desc, f.id desc
+            """)
+    List<Film> findPageBefore(@Param("createdAt") Date createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query("select f.id from Film f where f.poster.id = :posterId")
+    List<UUID> findIdsByPosterId(@Param("posterId") UUID posterId);
 }
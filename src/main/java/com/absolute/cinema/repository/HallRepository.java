@@ -1,11 +1,23 @@
 package com.absolute.cinema.repository;
 
 import com.absolute.cinema.entity.Hall;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface HallRepository extends JpaRepository<Hall, UUID> {
+
+    @Query("""
+            select h from Hall h
+             where (h.createdAt, h.id) < (:createdAt, :id)
+             order by h.createdAt desc, h.id desc
+            """)
+    List<Hall> findPageBefore(@Param("createdAt") Date createdAt, @Param("id") UUID id, Limit limit);
 }
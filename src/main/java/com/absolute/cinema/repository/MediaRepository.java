@@ -1,11 +1,51 @@
 package com.absolute.cinema.repository;
 
+import com.absolute.cinema.dto.MediaDTO;
 import com.absolute.cinema.entity.Media;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MediaRepository extends JpaRepository<Media, UUID> {
-}
\ No newline at end of file
+
+    boolean existsByStorageKey(String storageKey);
+
+    /**
+     * Takes a transaction-scoped advisory lock on a storage key. Writers adding a reference to a blob
+     * and the collector deleting unreferenced blobs both hold it until their transaction ends.
+     */
+    @Query(value = "select 1 from pg_advisory_xact_lock(hashtext(:storageKey))", nativeQuery = true)
+    int lockStorageKey(@Param("storageKey") String storageKey);
+
+    @Query("""
+            select new com.absolute.cinema.dto.MediaDTO(m.id, m.filename, m.contentType, m.mediaType, m.createdAt, m.updatedAt)
+              from Media m
+             where m.id = :id
+            """)
+    Optional<MediaDTO> findInfoById(@Param("id") UUID id);
+
+    @Query(value = "select id from media where storage_key is null limit :limit", nativeQuery = true)
+    List<UUID> findIdsWithDatabaseContent(@Param("limit") int limit);
+
+    @Query(value = "select substring(content from :offset for :length) from media where id = :id", nativeQuery = true)
+    byte[] findContentChunk(@Param("id") UUID id, @Param("offset") int offset, @Param("length") int length);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            update media
+               set storage_key = :storageKey,
+                   content = null
+             where id = :id
+               and storage_key is null
+            """, nativeQuery = true)
+    int moveContentToStorage(@Param("id") UUID id, @Param("storageKey") String storageKey);
+}
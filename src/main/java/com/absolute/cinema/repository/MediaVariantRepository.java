@@ -0,0 +1,22 @@
+package com.absolute.cinema.repository;
+
+import com.absolute.cinema.entity.MediaVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MediaVariantRepository extends JpaRepository<MediaVariant, UUID> {
+
+    Optional<MediaVariant> findByMedia_IdAndWidth(UUID mediaId, Integer width);
+
+    boolean existsByStorageKey(String storageKey);
+
+    @Query("select v.storageKey from MediaVariant v where v.media.id = :mediaId")
+    List<String> findStorageKeysByMediaId(@Param("mediaId") UUID mediaId);
+}
@@ -1,11 +1,38 @@
 package com.absolute.cinema.repository;
 
 import com.absolute.cinema.entity.Payment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+
+    @Query("""
+            select p.id from Payment p
+             where p.status = com.absolute.cinema.entity.Payment.Status.PENDING
+               and p.nextAttemptAt <= :now
+             order by p.nextAttemptAt
+            """)
+    List<UUID> findDueAttempts(@Param("now") OffsetDateTime now, Limit limit);
+
+    /**
+     * Leases the next attempt of a due PENDING payment, so only one worker charges it at a time.
+     */
+    @Modifying
+    @Query("""
+            update Payment p
+               set p.nextAttemptAt = :leaseUntil
+             where p.id = :id
+               and p.status = com.absolute.cinema.entity.Payment.Status.PENDING
+               and p.nextAttemptAt <= :now
+            """)
+    int claimAttempt(@Param("id") UUID id, @Param("now") OffsetDateTime now, @Param("leaseUntil") OffsetDateTime leaseUntil);
 }
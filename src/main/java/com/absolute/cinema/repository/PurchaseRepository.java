@@ -1,14 +1,55 @@
 package com.absolute.cinema.repository;
 
 import com.absolute.cinema.entity.Purchase;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface PurchaseRepository extends JpaRepository<Purchase, UUID> {
     Page<Purchase> findByClientId(UUID clientId, Pageable pageable);
+
+    /**
+     * Loads a purchase and locks its row, so payments, their settlement and cancellation of it are serialized.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Purchase p where p.id = :id")
+    Optional<Purchase> findForPaymentById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("""
+            update Purchase p
+               set p.status = com.absolute.cinema.entity.Purchase.Status.FAILED
+             where p.id in :ids
+               and p.status = com.absolute.cinema.entity.Purchase.Status.PENDING
+               and not exists (
+                   select 1 from Payment pay
+                    where pay.purchase = p
+                      and pay.status = com.absolute.cinema.entity.Payment.Status.PENDING)
+            """)
+    int failPending(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            select p from Purchase p
+             where p.client.id = :clientId
+               and (p.createdAt, p.id) < (:createdAt, :id)
+             order by p.createdAt desc, p.id desc
+            """)
+    List<Purchase> findPageByClientBefore(@Param("clientId") UUID clientId,
+                                          @Param("createdAt") Date createdAt,
+                                          @Param("id") UUID id,
+                                          Limit limit);
 }
\ No newline at end of file
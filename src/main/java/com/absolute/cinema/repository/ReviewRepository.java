@@ -1,9 +1,13 @@
 package com.absolute.cinema.repository;
 
 import com.absolute.cinema.entity.Review;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +17,11 @@ import java.util.UUID;
 public interface ReviewRepository extends JpaRepository<Review, UUID> {
     Page<Review> findByFilm_Id(UUID filmId, Pageable pageable);
     boolean existsByFilm_IdAndClient_Id(UUID filmId, UUID clientId);
+
+    /**
+     * Loads a review and locks its row, so concurrent edits of it apply their rating deltas one after another.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Review r where r.id = :id")
+    Optional<Review> findForUpdateById(@Param("id") UUID id);
 }
@@ -1,10 +1,15 @@
 package com.absolute.cinema.repository;
 
 import com.absolute.cinema.entity.Session;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -12,9 +17,69 @@ import java.util.UUID;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, UUID> {
-    List<Session> findByHallIdAndStartAtBetween(UUID hallId, OffsetDateTime start, OffsetDateTime end);
+
+    interface SlotView {
+        UUID getId();
+        OffsetDateTime getSlotStartAt();
+        OffsetDateTime getSlotEndAt();
+    }
+
+    List<SlotView> findSlotsByHall_Id(UUID hallId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            update sessions
+               set slot_end_at = slot_start_at + make_interval(mins => :durationMinutes)
+             where film_id = :filmId
+            """, nativeQuery = true)
+    int resizeSlotsForFilm(@Param("filmId") UUID filmId, @Param("durationMinutes") int durationMinutes);
 
     Page<Session> findByFilmId(UUID filmId, Pageable pageable);
     Page<Session> findByStartAtBetween(OffsetDateTime startDate, OffsetDateTime endDate, Pageable pageable);
     Page<Session> findByFilmIdAndStartAtBetween(UUID filmId, OffsetDateTime startDate, OffsetDateTime endDate, Pageable pageable);
+
+    @Query("""
+            select s from Session s
+             where (s.startAt, s.id) > (:startAt, :id)
+             order by s.startAt, s.id
+            """)
+    List<Session> findPageAfter(@Param("startAt") OffsetDateTime startAt, @Param("id") UUID id, Limit limit);
+
+    @Query("""
+            select s from Session s
+             where s.film.id = :filmId
+               and (s.startAt, s.id) > (:startAt, :id)
+             order by s.startAt, s.id
+            """)
+    List<Session> findPageByFilmAfter(@Param("filmId") UUID filmId,
+                                      @Param("startAt") OffsetDateTime startAt,
+                                      @Param("id") UUID id,
+                                      Limit limit);
+
+    @Query("""
+            select s from Session s
+             where s.startAt between :from and :to
+               and (s.startAt, s.id) > (:startAt, :id)
+             order by s.startAt, s.id
+            """)
+    List<Session> findPageBetweenAfter(@Param("from") OffsetDateTime from,
+                                       @Param("to") OffsetDateTime to,
+                                       @Param("startAt") OffsetDateTime startAt,
+                                       @Param("id") UUID id,
+                                       Limit limit);
+
+    @Query("""
+            select s from Session s
+             where s.film.id = :filmId
+               and s.startAt between :from and :to
+               and (s.startAt, s.id) > (:startAt, :id)
+             order by s.startAt, s.id
+            """)
+    List<Session> findPageByFilmBetweenAfter(@Param("filmId") UUID filmId,
+                                             @Param("from") OffsetDateTime from,
+                                             @Param("to") OffsetDateTime to,
+                                             @Param("startAt") OffsetDateTime startAt,
+                                             @Param("id") UUID id,
+                                             Limit limit);
 }
\ No newline at end of file
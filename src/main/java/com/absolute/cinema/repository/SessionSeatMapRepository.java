@@ -0,0 +1,51 @@
+package com.absolute.cinema.repository;
+
+import com.absolute.cinema.entity.SessionSeatMap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SessionSeatMapRepository extends JpaRepository<SessionSeatMap, UUID> {
+
+    @Query(value = "select cast(payload as text) from session_seat_map where session_id = :sessionId", nativeQuery = true)
+    Optional<String> findPayloadBySessionId(@Param("sessionId") UUID sessionId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into session_seat_map (session_id, payload, updated_at)
+            select ss.id,
+                   jsonb_build_object('sessionId', ss.id, 'seats', coalesce((
+                       select jsonb_agg(jsonb_build_object(
+                                  'ticketId', t.id,
+                                  'seatId', s.id,
+                                  'row', s.row_number,
+                                  'number', s.seat_number,
+                                  'categoryId', c.id,
+                                  'categoryName', c.name,
+                                  'priceCents', t.price_cents,
+                                  'status', t.status,
+                                  'reservedUntil', t.reserved_until
+                              ) order by s.row_number, s.seat_number)
+                         from tickets t
+                         join seats s on s.id = t.seat_id
+                         join seat_categories c on c.id = t.category_id
+                        where t.session_id = ss.id
+                   ), cast('[]' as jsonb))),
+                   current_timestamp
+              from sessions ss
+             where ss.id in (:sessionIds)
+            on conflict (session_id) do update
+               set payload = excluded.payload,
+                   updated_at = excluded.updated_at
+            """, nativeQuery = true)
+    int refresh(@Param("sessionIds") Collection<UUID> sessionIds);
+}
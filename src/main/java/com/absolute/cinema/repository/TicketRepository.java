@@ -1,16 +1,207 @@
 package com.absolute.cinema.repository;
 
+import com.absolute.cinema.entity.Purchase;
 import com.absolute.cinema.entity.Ticket;
+import com.absolute.cinema.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, UUID> {
+
+    interface StatusView {
+        UUID getId();
+        Ticket.Status getStatus();
+    }
+
+    interface SessionTicketView {
+        UUID getId();
+        UUID getSessionId();
+    }
+
+    interface ExpiredReservationView {
+        UUID getId();
+        UUID getSessionId();
+    }
+
+    interface PurchaseTicketView {
+        UUID getPurchaseId();
+        UUID getId();
+        UUID getFilmId();
+    }
+
+    interface PurchaseCandidateView {
+        UUID getId();
+        UUID getFilmId();
+        Ticket.Status getStatus();
+        UUID getReservedByUserId();
+        Integer getPriceCents();
+    }
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into tickets (id, session_id, seat_id, category_id, price_cents, status)
+            select gen_random_uuid(), :sessionId, s.id, s.category_id, c.price_cents, 'AVAILABLE'
+              from seats s
+              join seat_categories c on c.id = s.category_id
+             where s.hall_id = :hallId
+            """, nativeQuery = true)
+    int insertAvailableForHallSeats(@Param("sessionId") UUID sessionId, @Param("hallId") UUID hallId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            insert into tickets (id, session_id, seat_id, category_id, price_cents, status)
+            select gen_random_uuid(), ss.id, s.id, s.category_id, c.price_cents, 'AVAILABLE'
+              from sessions ss
+              join seats s on s.hall_id = ss.hall_id
+              join seat_categories c on c.id = s.category_id
+             where ss.id in (:sessionIds)
+            """, nativeQuery = true)
+    int insertAvailableForSessions(@Param("sessionIds") Collection<UUID> sessionIds);
+
     void deleteBySessionId(UUID sessionId);
+
+    @Query("select distinct t.session.id from Ticket t where t.category.id = :categoryId")
+    List<UUID> findSessionIdsByCategoryId(@Param("categoryId") UUID categoryId);
+
     List<Ticket> findBySessionId(UUID sessionId);
     List<Ticket> findBySessionIdAndStatus(UUID sessionId, Ticket.Status status);
     boolean existsBySession_Film_IdAndStatusAndPurchase_Client_Id(UUID filmId, Ticket.Status status, UUID userId);
+    List<StatusView> findBySession_IdAndIdIn(UUID sessionId, Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t
+               set t.status = com.absolute.cinema.entity.Ticket.Status.RESERVED,
+                   t.reservedUntil = :reservedUntil,
+                   t.reservedByUser = :user
+             where t.id = :id
+               and t.status = com.absolute.cinema.entity.Ticket.Status.AVAILABLE
+            """)
+    int reserveIfAvailable(@Param("id") UUID id,
+                           @Param("user") User user,
+                           @Param("reservedUntil") OffsetDateTime reservedUntil);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Ticket t
+               set t.status = com.absolute.cinema.entity.Ticket.Status.RESERVED,
+                   t.reservedUntil = :reservedUntil,
+                   t.reservedByUser = :user
+             where t.id in :ids
+               and t.session.id = :sessionId
+               and t.status = com.absolute.cinema.entity.Ticket.Status.AVAILABLE
+            """)
+    int reserveAllIfAvailable(@Param("sessionId") UUID sessionId,
+                              @Param("ids") Collection<UUID> ids,
+                              @Param("user") User user,
+                              @Param("reservedUntil") OffsetDateTime reservedUntil);
+
+    // Expired holds are released unless the purchase is paid or still has a payment in flight
+    @Query("""
+            select t.id as id, t.session.id as sessionId
+              from Ticket t
+              left join t.purchase p
+             where t.status = com.absolute.cinema.entity.Ticket.Status.RESERVED
+               and t.reservedUntil < :now
+               and (p is null or p.status <> com.absolute.cinema.entity.Purchase.Status.PAID)
+               and not exists (
+                   select 1 from Payment pay
+                    where pay.purchase = p
+                      and pay.status = com.absolute.cinema.entity.Payment.Status.PENDING)
+             order by t.reservedUntil
+            """)
+    List<ExpiredReservationView> findExpiredReservations(@Param("now") OffsetDateTime now, Limit limit);
+
+    /**
+     * Releases the given holds that are still expired and returns the purchase each released ticket was attached to,
+     * {@code null} for holds without one. The self-join reads the purchase id as it was before the update.
+     */
+    @Query(value = """
+            update tickets t
+               set status = 'AVAILABLE',
+                   reserved_until = null,
+                   reserved_by_user_id = null,
+                   purchase_id = null
+              from tickets held
+             where held.id = t.id
+               and t.id in (:ids)
+               and t.status = 'RESERVED'
+               and t.reserved_until < :now
+               and not exists (
+                   select 1 from purchases p
+                    where p.id = held.purchase_id
+                      and p.status = 'PAID')
+               and not exists (
+                   select 1 from payments pay
+                    where pay.purchase_id = held.purchase_id
+                      and pay.status = 'PENDING')
+            returning held.purchase_id
+            """, nativeQuery = true)
+    List<UUID> releaseExpiredReservations(@Param("ids") Collection<UUID> ids, @Param("now") OffsetDateTime now);
+
+    @Query("""
+            select t.id as id, t.session.film.id as filmId, t.status as status,
+                   u.id as reservedByUserId, t.priceCents as priceCents
+              from Ticket t
+              left join t.reservedByUser u
+             where t.id in :ids
+            """)
+    List<PurchaseCandidateView> findPurchaseCandidates(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+            select t.id as id, t.session.id as sessionId
+              from Ticket t
+             where t.purchase.id = :purchaseId
+            """)
+    List<SessionTicketView> findSessionTicketsByPurchaseId(@Param("purchaseId") UUID purchaseId);
+
+    @Query("""
+            select t.purchase.id as purchaseId, t.id as id, t.session.film.id as filmId
+              from Ticket t
+             where t.purchase.id in :purchaseIds
+            """)
+    List<PurchaseTicketView> findPurchaseTickets(@Param("purchaseIds") Collection<UUID> purchaseIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Ticket t
+               set t.purchase = :purchase
+             where t.id in :ids
+               and t.status = com.absolute.cinema.entity.Ticket.Status.RESERVED
+               and t.reservedByUser = :user
+            """)
+    int attachReservedToPurchase(@Param("ids") Collection<UUID> ids,
+                                 @Param("user") User user,
+                                 @Param("purchase") Purchase purchase);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Ticket t
+               set t.status = com.absolute.cinema.entity.Ticket.Status.SOLD,
+                   t.reservedUntil = null
+             where t.purchase.id = :purchaseId
+               and t.status = com.absolute.cinema.entity.Ticket.Status.RESERVED
+            """)
+    int sellByPurchaseId(@Param("purchaseId") UUID purchaseId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Ticket t
+               set t.status = com.absolute.cinema.entity.Ticket.Status.AVAILABLE,
+                   t.purchase = null,
+                   t.reservedByUser = null,
+                   t.reservedUntil = null
+             where t.purchase.id = :purchaseId
+            """)
+    int releaseByPurchaseId(@Param("purchaseId") UUID purchaseId);
 }
\ No newline at end of file
@@ -11,7 +11,7 @@ import java.util.Optional;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Integer> {
-    Optional<Token> findByAccessToken(String accessToken);
+    Optional<Token> findByAccessTokenHash(byte[] accessTokenHash);
     List<Token> findAllByUserAndLoggedOutFalse(User user);
     void deleteByExpirationDateBefore(Instant date);
 }
\ No newline at end of file
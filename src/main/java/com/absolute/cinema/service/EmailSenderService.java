@@ -2,4 +2,10 @@ package com.absolute.cinema.service;
 
 public interface EmailSenderService {
     void sendEmail(String to, String subject, String body);
+
+    /**
+     * Records the email in the outbox within the caller's transaction; it is delivered
+     * asynchronously once that transaction commits.
+     */
+    void enqueueEmail(String to, String subject, String body);
 }
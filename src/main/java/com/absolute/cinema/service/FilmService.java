@@ -1,5 +1,6 @@
 package com.absolute.cinema.service;
 
+import com.absolute.cinema.dto.CatalogEntryDTO;
 import com.absolute.cinema.dto.CreateFilmDTO;
 import com.absolute.cinema.dto.FilmDTO;
 import com.absolute.cinema.dto.FilmPagedListDTO;
@@ -9,6 +10,9 @@ import java.util.UUID;
 
 public interface FilmService {
     FilmPagedListDTO getFilms(Integer page, Integer limit);
+    FilmPagedListDTO getFilmsAfter(String cursor, Integer limit);
+    CatalogEntryDTO getCatalogPage(Integer page, String cursor, Integer limit);
+    CatalogEntryDTO getCatalogFilm(UUID id);
     FilmDTO createFilm(CreateFilmDTO createFilmDTO);
     FilmDTO getFilmById(UUID id);
     FilmDTO updateFilm(UUID id, UpdateFilmDTO updateFilmDTO);
@@ -7,6 +7,7 @@ import java.util.UUID;
 
 public interface HallService {
     HallPagedListDTO getAll(int page, int size);
+    HallPagedListDTO getAllAfter(String cursor, int size);
     HallDTO getById(UUID id);
     HallDTO create(HallCreateRequestDTO req);
     HallDTO update(UUID id, HallUpdateRequestDTO req);
@@ -1,5 +1,6 @@
 package com.absolute.cinema.service;
 
+import com.absolute.cinema.dto.MediaContentDTO;
 import com.absolute.cinema.dto.MediaDTO;
 import com.absolute.cinema.entity.Media;
 import org.springframework.web.multipart.MultipartFile;
@@ -10,5 +11,7 @@ public interface MediaService {
     MediaDTO uploadMedia(MultipartFile file, Media.MediaType mediaType);
     Media getMediaById(UUID id);
     MediaDTO getMediaDTOById(UUID id);
+    MediaContentDTO getMediaContent(UUID id);
+    MediaContentDTO getMediaVariant(UUID id, int width);
     void deleteMedia(UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.absolute.cinema.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+
+/**
+ * Binary store for media content. Content is addressed by a key derived from the bytes themselves,
+ * so storing identical content twice yields the same key and a single stored copy.
+ */
+public interface MediaStorage {
+
+    StoredContent store(InputStream content);
+
+    Resource load(String key);
+
+    boolean exists(String key);
+
+    void delete(String key);
+
+    record StoredContent(String key, long length) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.absolute.cinema.service;
+
+import java.util.UUID;
+
+/**
+ * External card processor. Implementations report whether a charge was approved or declined
+ * and throw when the outcome is unknown (network errors, timeouts), in which case the charge
+ * may be retried with the same payment id.
+ */
+public interface PaymentGateway {
+
+    ChargeResult charge(ChargeRequest request);
+
+    record ChargeRequest(UUID paymentId, int amountCents, String currency) {
+    }
+
+    enum ChargeResult { APPROVED, DECLINED }
+}
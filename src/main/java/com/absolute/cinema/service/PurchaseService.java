@@ -9,6 +9,7 @@ import java.util.UUID;
 
 public interface PurchaseService {
     PurchasePagedListDTO getPurchasesForClient(int page, int size, UUID clientId);
+    PurchasePagedListDTO getPurchasesForClientAfter(String cursor, int size, UUID clientId);
     PurchaseDTO createPurchaseForClient(CreatePurchaseDTO createPurchaseDTO, User user);
     PurchaseDTO getPurchaseById(UUID purchaseId, User user);
     PurchaseDTO cancelPurchaseById(UUID purchaseId, User user);
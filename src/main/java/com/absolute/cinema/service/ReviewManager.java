@@ -4,6 +4,7 @@ import com.absolute.cinema.dto.review.ReviewCreateDTO;
 import com.absolute.cinema.dto.review.ReviewDTO;
 import com.absolute.cinema.dto.review.ReviewPagedListDTO;
 import com.absolute.cinema.dto.review.ReviewUpdateDTO;
+import com.absolute.cinema.entity.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -23,15 +24,15 @@ public class ReviewManager {
         return reviewService.getById(id);
     }
 
-    public ReviewDTO create(UUID filmId, ReviewCreateDTO dto) {
-        return reviewService.create(filmId, dto);
+    public ReviewDTO create(UUID filmId, ReviewCreateDTO dto, User user) {
+        return reviewService.create(filmId, dto, user);
     }
 
-    public ReviewDTO update(UUID id, ReviewUpdateDTO dto) {
-        return reviewService.update(id, dto);
+    public ReviewDTO update(UUID id, ReviewUpdateDTO dto, User user) {
+        return reviewService.update(id, dto, user);
     }
 
-    public void delete(UUID id) {
-        reviewService.delete(id);
+    public void delete(UUID id, User user) {
+        reviewService.delete(id, user);
     }
 }
@@ -1,16 +1,19 @@
 package com.absolute.cinema.service;
 
+import com.absolute.cinema.dto.review.FilmRatingDTO;
 import com.absolute.cinema.dto.review.ReviewCreateDTO;
 import com.absolute.cinema.dto.review.ReviewDTO;
 import com.absolute.cinema.dto.review.ReviewPagedListDTO;
 import com.absolute.cinema.dto.review.ReviewUpdateDTO;
+import com.absolute.cinema.entity.User;
 
 import java.util.UUID;
 
 public interface ReviewService {
     ReviewPagedListDTO getFilmReviews(UUID filmId, int page, int size);
+    FilmRatingDTO getFilmRating(UUID filmId);
     ReviewDTO getById(UUID id);
-    ReviewDTO create(UUID filmId, ReviewCreateDTO dto);
-    ReviewDTO update(UUID id, ReviewUpdateDTO dto);
-    void delete(UUID id);
+    ReviewDTO create(UUID filmId, ReviewCreateDTO dto, User user);
+    ReviewDTO update(UUID id, ReviewUpdateDTO dto, User user);
+    void delete(UUID id, User user);
 }
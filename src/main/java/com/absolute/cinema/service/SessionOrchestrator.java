@@ -2,6 +2,7 @@ package com.absolute.cinema.service;
 
 import com.absolute.cinema.dto.CreateSessionDTO;
 import com.absolute.cinema.dto.EditSessionDTO;
+import com.absolute.cinema.dto.PeriodicSessionsResultDTO;
 import com.absolute.cinema.dto.SessionDTO;
 import com.absolute.cinema.dto.SessionPagedListDTO;
 import lombok.RequiredArgsConstructor;
@@ -20,10 +21,18 @@ public class SessionOrchestrator {
         return sessionService.getSessions(page, size, filmId, date);
     }
 
+    public SessionPagedListDTO getSessionsAfter(String cursor, int size, UUID filmId, Date date) {
+        return sessionService.getSessionsAfter(cursor, size, filmId, date);
+    }
+
     public SessionDTO createSession(CreateSessionDTO createSessionDTO) {
         return sessionService.createSession(createSessionDTO);
     }
 
+    public PeriodicSessionsResultDTO createPeriodicSessions(CreateSessionDTO createSessionDTO) {
+        return sessionService.createPeriodicSessions(createSessionDTO);
+    }
+
     public SessionDTO getSession(UUID id) {
         return sessionService.getSession(id);
     }
@@ -2,6 +2,7 @@ package com.absolute.cinema.service;
 
 import com.absolute.cinema.dto.CreateSessionDTO;
 import com.absolute.cinema.dto.EditSessionDTO;
+import com.absolute.cinema.dto.PeriodicSessionsResultDTO;
 import com.absolute.cinema.dto.SessionDTO;
 import com.absolute.cinema.dto.SessionPagedListDTO;
 
@@ -10,7 +11,9 @@ import java.util.UUID;
 
 public interface SessionService {
     SessionPagedListDTO getSessions(int page, int size, UUID filmId, Date date);
+    SessionPagedListDTO getSessionsAfter(String cursor, int size, UUID filmId, Date date);
     SessionDTO createSession(CreateSessionDTO createSessionDTO);
+    PeriodicSessionsResultDTO createPeriodicSessions(CreateSessionDTO createSessionDTO);
     SessionDTO getSession(UUID id);
     SessionDTO editSession(UUID id, EditSessionDTO editSessionDTO);
     void deleteSession(UUID id);
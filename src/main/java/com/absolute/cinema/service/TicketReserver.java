@@ -20,6 +20,10 @@ public class TicketReserver {
         ticketService.createTicketsForSession(session);
     }
 
+    public void createForSessions(List<Session> sessions) {
+        ticketService.createTicketsForSessions(sessions);
+    }
+
     public void deleteForSession(UUID sessionId) {
         ticketService.deleteTicketsBySessionId(sessionId);
     }
@@ -28,6 +32,10 @@ public class TicketReserver {
         return ticketService.getTicketsForSession(sessionId, status);
     }
 
+    public String getSeatMap(UUID sessionId) {
+        return ticketService.getSeatMap(sessionId);
+    }
+
     public TicketDTO reserve(UUID id, User user) {
         return ticketService.reserveTicket(id, user);
     }
@@ -1,6 +1,7 @@
 package com.absolute.cinema.service;
 
 import com.absolute.cinema.dto.TicketDTO;
+import com.absolute.cinema.dto.TicketReservationResultDTO;
 import com.absolute.cinema.entity.Session;
 import com.absolute.cinema.entity.Ticket;
 import com.absolute.cinema.entity.User;
@@ -10,8 +11,13 @@ import java.util.UUID;
 
 public interface TicketService {
     void createTicketsForSession(Session session);
+    void createTicketsForSessions(List<Session> sessions);
     void deleteTicketsBySessionId(UUID sessionId);
     List<TicketDTO> getTicketsForSession(UUID sessionId, Ticket.Status status);
+    String getSeatMap(UUID sessionId);
     TicketDTO reserveTicket(UUID id, User user);
+    TicketReservationResultDTO reserveTickets(UUID sessionId, List<UUID> ticketIds, User user);
     TicketDTO cancelReserveForTicket(UUID id, User user);
+    int sellTicketsForPurchase(UUID purchaseId);
+    int releaseTicketsForPurchase(UUID purchaseId);
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.entity.EmailOutbox;
+import com.absolute.cinema.repository.EmailOutboxRepository;
+import com.absolute.cinema.service.EmailSenderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Drains the {@code email_outbox} table. Due rows are claimed with {@code FOR UPDATE SKIP LOCKED}
+ * and leased by pushing {@code next_attempt_at} forward, so several instances can poll concurrently
+ * and a crash mid-send only delays a message. Each claimed batch is sent on virtual threads;
+ * failures are retried with exponential backoff until {@link #MAX_ATTEMPTS} is reached.
+ */
+@Slf4j
+@Component
+class EmailOutboxDispatcher {
+
+    private static final int BATCH_SIZE = 20;
+    private static final int MAX_BATCHES_PER_RUN = 10;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final int MAX_ERROR_LENGTH = 1_000;
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailSenderService emailSenderService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    EmailOutboxDispatcher(
+            EmailOutboxRepository emailOutboxRepository,
+            EmailSenderService emailSenderService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailSenderService = emailSenderService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sentCounter = Counter.builder("cinema.email.outbox.sent")
+                .description("Outbox emails delivered to the SMTP server")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("cinema.email.outbox.failed")
+                .description("Outbox emails abandoned after exhausting their attempts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-ms:5000}")
+    public void dispatch() {
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            List<ClaimedEmail> claimed = transactionTemplate.execute(status -> claimBatch(Instant.now()));
+            if (claimed == null || claimed.isEmpty()) {
+                return;
+            }
+
+            CompletableFuture.allOf(claimed.stream()
+                    .map(email -> CompletableFuture.runAsync(() -> deliver(email), executor))
+                    .toArray(CompletableFuture[]::new)
+            ).join();
+
+            if (claimed.size() < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+    private List<ClaimedEmail> claimBatch(Instant now) {
+        List<EmailOutbox> due = emailOutboxRepository.lockDue(now, BATCH_SIZE);
+        Instant leaseUntil = now.plus(LEASE);
+
+        return due.stream()
+                .map(email -> {
+                    email.setAttempts(email.getAttempts() + 1);
+                    email.setNextAttemptAt(leaseUntil);
+                    return new ClaimedEmail(
+                            email.getId(),
+                            email.getRecipient(),
+                            email.getSubject(),
+                            email.getBody(),
+                            email.getAttempts()
+                    );
+                })
+                .toList();
+    }
+
+    private void deliver(ClaimedEmail email) {
+        try {
+            emailSenderService.sendEmail(email.recipient(), email.subject(), email.body());
+            emailOutboxRepository.markSent(email.id(), Instant.now());
+            sentCounter.increment();
+        } catch (Exception e) {
+            recordFailure(email, e);
+        }
+    }
+
+    private void recordFailure(ClaimedEmail email, Exception e) {
+        boolean exhausted = email.attempts() >= MAX_ATTEMPTS;
+        EmailOutbox.Status status = exhausted ? EmailOutbox.Status.FAILED : EmailOutbox.Status.PENDING;
+        Instant nextAttemptAt = Instant.now().plus(backoff(email.attempts()));
+
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        try {
+            emailOutboxRepository.markAttemptFailed(email.id(), status, nextAttemptAt, error);
+        } catch (Exception updateFailure) {
+            log.error("Failed to record delivery failure for outbox email {}", email.id(), updateFailure);
+            return;
+        }
+
+        if (exhausted) {
+            failedCounter.increment();
+            log.error("Giving up on outbox email {} to {} after {} attempts: {}",
+                    email.id(), email.recipient(), email.attempts(), error);
+        } else {
+            log.warn("Outbox email {} attempt {} failed, retrying at {}: {}",
+                    email.id(), email.attempts(), nextAttemptAt, error);
+        }
+    }
+
+    private static Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 16);
+        Duration delay = INITIAL_BACKOFF.multipliedBy(1L << shift);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private record ClaimedEmail(UUID id, String recipient, String subject, String body, int attempts) {
+    }
+}
@@ -1,16 +1,22 @@
 package com.absolute.cinema.service.impl;
 
+import com.absolute.cinema.entity.EmailOutbox;
+import com.absolute.cinema.repository.EmailOutboxRepository;
 import com.absolute.cinema.service.EmailSenderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
 public class EmailSenderServiceImpl implements EmailSenderService {
 
     private final JavaMailSender javaMailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     @Override
     public void sendEmail(String to, String subject, String body) {
@@ -21,4 +27,17 @@ public class EmailSenderServiceImpl implements EmailSenderService {
 
         javaMailSender.send(mailMessage);
     }
+
+    @Override
+    @Transactional
+    public void enqueueEmail(String to, String subject, String body) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setStatus(EmailOutbox.Status.PENDING);
+        email.setNextAttemptAt(Instant.now());
+
+        emailOutboxRepository.save(email);
+    }
 }
@@ -0,0 +1,94 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.dto.CatalogEntryDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Public film catalog responses kept already serialised, each with a strong ETag over its bytes.
+ * Single films are dropped by id after commit; listing pages are dropped wholesale on any film
+ * change, since one insert or delete shifts every page behind it. A load that overlaps an
+ * invalidation may have read the data being replaced, so its entry is discarded rather than kept.
+ */
+@Component
+@RequiredArgsConstructor
+class FilmCatalogCache {
+
+    private static final int MAX_FILMS = 1_000;
+    private static final int MAX_PAGES = 500;
+    private static final Duration RELOAD_AFTER = Duration.ofMinutes(5);
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache<UUID, CatalogEntryDTO> films = Caffeine.newBuilder()
+            .maximumSize(MAX_FILMS)
+            .expireAfterWrite(RELOAD_AFTER)
+            .build();
+
+    private final Cache<PageKey, CatalogEntryDTO> pages = Caffeine.newBuilder()
+            .maximumSize(MAX_PAGES)
+            .expireAfterWrite(RELOAD_AFTER)
+            .build();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    CatalogEntryDTO getFilm(UUID filmId, Supplier<?> loader) {
+        return load(films, filmId, loader);
+    }
+
+    CatalogEntryDTO getPage(Integer page, String cursor, int limit, Supplier<?> loader) {
+        return load(pages, new PageKey(page, cursor, limit), loader);
+    }
+
+    void invalidate(UUID filmId) {
+        invalidate(List.of(filmId));
+    }
+
+    void invalidate(Collection<UUID> filmIds) {
+        List<UUID> ids = List.copyOf(filmIds);
+        TransactionHooks.afterCommit(() -> {
+            invalidations.incrementAndGet();
+            films.invalidateAll(ids);
+            pages.invalidateAll();
+        });
+    }
+
+    private <K> CatalogEntryDTO load(Cache<K, CatalogEntryDTO> cache, K key, Supplier<?> loader) {
+        long seen = invalidations.get();
+        CatalogEntryDTO entry = cache.get(key, k -> serialise(loader.get()));
+        if (invalidations.get() != seen) {
+            // invalidateAll() skips loads still in flight, so drop whatever this one put back
+            cache.asMap().remove(key, entry);
+        }
+        return entry;
+    }
+
+    private CatalogEntryDTO serialise(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return new CatalogEntryDTO(json, "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise film catalog response", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record PageKey(Integer page, String cursor, int limit) {
+    }
+}
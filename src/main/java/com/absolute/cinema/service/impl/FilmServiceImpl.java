@@ -1,22 +1,35 @@
 package com.absolute.cinema.service.impl;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
+import com.absolute.cinema.common.exception.custom.ConflictException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.common.pagination.KeysetCursor;
 import com.absolute.cinema.dto.*;
 import com.absolute.cinema.entity.Film;
+import com.absolute.cinema.entity.FilmRatingStats;
 import com.absolute.cinema.entity.Media;
 import com.absolute.cinema.mapper.FilmMapper;
+import com.absolute.cinema.mapper.ReviewMapper;
+import com.absolute.cinema.repository.FilmRatingStatsRepository;
 import com.absolute.cinema.repository.FilmRepository;
+import com.absolute.cinema.repository.SessionRepository;
 import com.absolute.cinema.service.FilmService;
 import com.absolute.cinema.service.MediaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,7 +37,12 @@ import java.util.stream.Collectors;
 public class FilmServiceImpl implements FilmService {
 
     private final FilmRepository filmRepository;
+    private final SessionRepository sessionRepository;
+    private final HallTimelineCache hallTimelineCache;
+    private final FilmCatalogCache filmCatalogCache;
+    private final FilmRatingStatsRepository filmRatingStatsRepository;
     private final FilmMapper filmMapper;
+    private final ReviewMapper reviewMapper;
     private final MediaService mediaService;
 
     private UUID tempMediaValidationId;
@@ -41,9 +59,7 @@ public class FilmServiceImpl implements FilmService {
 
         Page<Film> filmsPage = filmRepository.findAll(pageable);
 
-        List<FilmDTO> filmDTOs = filmsPage.getContent().stream()
-                .map(filmMapper::toDTO)
-                .collect(Collectors.toList());
+        List<FilmDTO> filmDTOs = toDTOs(filmsPage.getContent());
 
         PageDTO pageDTO = new PageDTO(
                 page,
@@ -55,6 +71,33 @@ public class FilmServiceImpl implements FilmService {
         return new FilmPagedListDTO(filmDTOs, pageDTO);
     }
 
+    @Override
+    public FilmPagedListDTO getFilmsAfter(String cursor, Integer limit) {
+        if (limit < 1) throw new BadRequestException("Page size is less than 1");
+
+        KeysetCursor position = KeysetCursor.parse(cursor, KeysetCursor.DESCENDING_START);
+        List<Film> films = filmRepository.findPageBefore(
+                Timestamp.from(position.at()), position.id(), Limit.of(limit + 1));
+
+        List<FilmDTO> filmDTOs = toDTOs(films.subList(0, Math.min(films.size(), limit)));
+        String nextCursor = KeysetCursor.next(films, limit, film -> new KeysetCursor(film.getCreatedAt().toInstant(), film.getId()));
+
+        return new FilmPagedListDTO(filmDTOs, new PageDTO(null, limit, null, null, nextCursor));
+    }
+
+    @Override
+    public CatalogEntryDTO getCatalogPage(Integer page, String cursor, Integer limit) {
+        if (cursor != null) {
+            return filmCatalogCache.getPage(null, cursor, limit, () -> getFilmsAfter(cursor, limit));
+        }
+        return filmCatalogCache.getPage(page, null, limit, () -> getFilms(page, limit));
+    }
+
+    @Override
+    public CatalogEntryDTO getCatalogFilm(UUID id) {
+        return filmCatalogCache.getFilm(id, () -> getFilmById(id));
+    }
+
     @Override
     public FilmDTO createFilm(CreateFilmDTO createFilmDTO) {
         Film film = filmMapper.toFilm(createFilmDTO);
@@ -75,7 +118,10 @@ public class FilmServiceImpl implements FilmService {
             }
         }
         
-        return filmMapper.toDTO(filmRepository.save(film));
+        Film savedFilm = filmRepository.save(film);
+        filmCatalogCache.invalidate(savedFilm.getId());
+
+        return toDTO(savedFilm, null);
     }
 
     @Override
@@ -85,10 +131,11 @@ public class FilmServiceImpl implements FilmService {
                 () -> new NotFoundException(String.format("Film with id: %s not found", id))
         );
 
-        return filmMapper.toDTO(film);
+        return toDTO(film, filmRatingStatsRepository.findById(id).orElse(null));
     }
 
     @Override
+    @Transactional
     public FilmDTO updateFilm(UUID id, UpdateFilmDTO updateFilmDTO) {
 
         Film film = filmRepository.findById(id).orElseThrow(
@@ -97,6 +144,7 @@ public class FilmServiceImpl implements FilmService {
 
         film.setTitle(updateFilmDTO.title());
         film.setDescription(updateFilmDTO.description());
+        boolean durationChanged = !Objects.equals(film.getDurationMinutes(), updateFilmDTO.durationMinutes());
         film.setDurationMinutes(updateFilmDTO.durationMinutes());
         film.setAgeRating(updateFilmDTO.ageRating());
         
@@ -113,7 +161,18 @@ public class FilmServiceImpl implements FilmService {
             film.setPoster(null);
         }
 
-        return filmMapper.toDTO(filmRepository.save(film));
+        Film savedFilm = filmRepository.save(film);
+        if (durationChanged) {
+            try {
+                sessionRepository.resizeSlotsForFilm(savedFilm.getId(), savedFilm.getDurationMinutes());
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("New duration makes sessions of the film overlap with other sessions in their halls");
+            }
+            hallTimelineCache.invalidateAll();
+        }
+        filmCatalogCache.invalidate(savedFilm.getId());
+
+        return toDTO(savedFilm, filmRatingStatsRepository.findById(id).orElse(null));
     }
 
     @Override
@@ -124,8 +183,23 @@ public class FilmServiceImpl implements FilmService {
         }
 
         filmRepository.deleteById(id);
+        filmCatalogCache.invalidate(id);
     }
     
+    private List<FilmDTO> toDTOs(List<Film> films) {
+        Map<UUID, FilmRatingStats> ratings = filmRatingStatsRepository.findAllById(films.stream().map(Film::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(FilmRatingStats::getFilmId, Function.identity()));
+
+        return films.stream()
+                .map(film -> toDTO(film, ratings.get(film.getId())))
+                .toList();
+    }
+
+    private FilmDTO toDTO(Film film, FilmRatingStats ratingStats) {
+        return filmMapper.toDTO(film, reviewMapper.toRatingDTO(film.getId(), ratingStats));
+    }
+
     private Media validatePoster(UUID posterId) {
         Media media = mediaService.getMediaById(posterId);
         
@@ -0,0 +1,80 @@
+package com.absolute.cinema.service.impl;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Occupied slots of a single hall ordered by start time, used to check candidate sessions
+ * against the schedule in memory instead of issuing one query per candidate.
+ * Lookups are lock-free so a cached schedule can be read while it is being updated.
+ */
+final class HallSchedule {
+
+    static final Duration MIN_BREAK = Duration.ofMinutes(20);
+
+    private static final Comparator<Slot> BY_START = Comparator
+            .comparing(Slot::start, OffsetDateTime.timeLineOrder())
+            .thenComparing(Slot::sessionId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final NavigableSet<Slot> slots = new ConcurrentSkipListSet<>(BY_START);
+    private final Map<UUID, Slot> slotsBySession = new ConcurrentHashMap<>();
+    private volatile Duration longest = Duration.ZERO;
+
+    record Slot(UUID sessionId, OffsetDateTime start, OffsetDateTime end) {
+    }
+
+    synchronized void add(Slot slot) {
+        if (slot.sessionId() != null) {
+            remove(slot.sessionId());
+            slotsBySession.put(slot.sessionId(), slot);
+        }
+        slots.add(slot);
+
+        Duration length = Duration.between(slot.start(), slot.end());
+        if (length.compareTo(longest) > 0) {
+            longest = length;
+        }
+    }
+
+    synchronized void remove(UUID sessionId) {
+        Slot slot = slotsBySession.remove(sessionId);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+    }
+
+    /**
+     * Finds a slot that is closer than {@link #MIN_BREAK} to {@code [start, end)}. Only slots starting
+     * after {@code start - MIN_BREAK - longest} can reach the candidate, so the scan is bounded by the
+     * number of neighbours rather than by the size of the schedule.
+     */
+    Optional<Slot> findConflict(OffsetDateTime start, OffsetDateTime end, UUID ignoredSessionId) {
+        Slot from = new Slot(null, start.minus(MIN_BREAK).minus(longest), null);
+        Slot to = new Slot(null, end.plus(MIN_BREAK), null);
+
+        for (Slot other : slots.subSet(from, false, to, false).descendingSet()) {
+            if (other.end().plus(MIN_BREAK).isAfter(start) && !Objects.equals(other.sessionId(), ignoredSessionId)) {
+                return Optional.of(other);
+            }
+        }
+        return Optional.empty();
+    }
+
+    static String describeConflict(Slot other, OffsetDateTime start, OffsetDateTime end) {
+        if (!start.isBefore(other.end())) {
+            return "Session must start at least 20 minutes after the previous session ends";
+        }
+        if (!end.isAfter(other.start())) {
+            return "Session must end at least 20 minutes before the next session starts";
+        }
+        return "Session overlaps with an existing session";
+    }
+}
@@ -2,17 +2,20 @@ package com.absolute.cinema.service.impl;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.common.pagination.KeysetCursor;
 import com.absolute.cinema.dto.PageDTO;
 import com.absolute.cinema.dto.hall.*;
 import com.absolute.cinema.mapper.HallMapper;
 import com.absolute.cinema.repository.HallRepository;
 import com.absolute.cinema.service.HallPlanService;
 import com.absolute.cinema.service.HallService;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.util.UUID;
 
 @Service
@@ -54,6 +57,23 @@ public class HallServiceImpl extends AbstractHallService implements HallService
         return new HallPagedListDTO(hallDTOs, pageDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public HallPagedListDTO getAllAfter(String cursor, int size) {
+        if (size <= 0) throw new BadRequestException("Size is less than or equal to 0");
+
+        var position = KeysetCursor.parse(cursor, KeysetCursor.DESCENDING_START);
+        var halls = hallRepository.findPageBefore(Timestamp.from(position.at()), position.id(), Limit.of(size + 1));
+
+        var hallDTOs = halls.stream()
+                .limit(size)
+                .map(hallMapper::toDTO)
+                .toList();
+        var nextCursor = KeysetCursor.next(halls, size, hall -> new KeysetCursor(hall.getCreatedAt().toInstant(), hall.getId()));
+
+        return new HallPagedListDTO(hallDTOs, new PageDTO(null, size, null, null, nextCursor));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public HallDTO getById(UUID id) {
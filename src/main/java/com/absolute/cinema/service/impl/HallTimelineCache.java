@@ -0,0 +1,71 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.entity.Session;
+import com.absolute.cinema.repository.SessionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Per-hall session timeline kept in memory so that slot validation does not hit the database.
+ * Session changes are applied to the cached timeline after commit; entries are reloaded
+ * periodically to pick up changes made outside the application or by other instances.
+ * A stale timeline is only a fast path: the {@code ex_session_hall_slot} exclusion constraint
+ * rejects overlapping slots that validation against it misses.
+ */
+@Component
+@RequiredArgsConstructor
+class HallTimelineCache {
+
+    private static final int MAX_HALLS = 500;
+    private static final Duration RELOAD_AFTER = Duration.ofMinutes(10);
+
+    private final SessionRepository sessionRepository;
+
+    private final Cache<UUID, HallSchedule> halls = Caffeine.newBuilder()
+            .maximumSize(MAX_HALLS)
+            .expireAfterWrite(RELOAD_AFTER)
+            .build();
+
+    HallSchedule get(UUID hallId) {
+        return halls.get(hallId, this::load);
+    }
+
+    void put(Session session) {
+        UUID hallId = session.getHall().getId();
+        HallSchedule.Slot slot = new HallSchedule.Slot(session.getId(), session.getSlotStartAt(), session.getSlotEndAt());
+        TransactionHooks.afterCommit(() -> halls.asMap().computeIfPresent(hallId, (id, schedule) -> {
+            schedule.add(slot);
+            return schedule;
+        }));
+    }
+
+    void remove(UUID hallId, UUID sessionId) {
+        TransactionHooks.afterCommit(() -> halls.asMap().computeIfPresent(hallId, (id, schedule) -> {
+            schedule.remove(sessionId);
+            return schedule;
+        }));
+    }
+
+    /**
+     * Drops the timeline of a hall right away, e.g. after the database rejected a slot the timeline allowed.
+     */
+    void evict(UUID hallId) {
+        halls.invalidate(hallId);
+    }
+
+    void invalidateAll() {
+        TransactionHooks.afterCommit(halls::invalidateAll);
+    }
+
+    private HallSchedule load(UUID hallId) {
+        HallSchedule schedule = new HallSchedule();
+        sessionRepository.findSlotsByHall_Id(hallId)
+                .forEach(slot -> schedule.add(new HallSchedule.Slot(slot.getId(), slot.getSlotStartAt(), slot.getSlotEndAt())));
+        return schedule;
+    }
+}
@@ -0,0 +1,119 @@
+package com.absolute.cinema.service.impl;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Downscales images with the JDK's ImageIO. Large reductions are done in successive halving steps,
+ * which keeps bilinear filtering from aliasing when a poster is shrunk to a thumbnail.
+ * Dimensions are read from the image header before decoding, and images above {@link #MAX_PIXELS}
+ * are never decoded, so a small file declaring huge dimensions cannot exhaust the heap.
+ */
+final class ImageResizer {
+
+    static final int[] WIDTH_BUCKETS = {100, 200, 400, 800};
+
+    // 25 megapixels decode to about 100 MB of ARGB pixels, well above any poster
+    static final long MAX_PIXELS = 25_000_000L;
+
+    private ImageResizer() {
+    }
+
+    record ResizedImage(byte[] content, String contentType) {
+    }
+
+    /**
+     * Rounds a requested width up to the nearest bucket, so that arbitrary widths map onto
+     * a small, cacheable set of variants. Widths above the largest bucket are capped at it.
+     */
+    static int bucketFor(int width) {
+        for (int bucket : WIDTH_BUCKETS) {
+            if (width <= bucket) {
+                return bucket;
+            }
+        }
+        return WIDTH_BUCKETS[WIDTH_BUCKETS.length - 1];
+    }
+
+    /**
+     * @return the resized image, or empty when the format cannot be decoded, the content is corrupt,
+     * the image is larger than {@link #MAX_PIXELS}, or it is already no wider than {@code width}
+     */
+    static Optional<ResizedImage> resize(InputStream original, String contentType, int width) throws IOException {
+        BufferedImage source;
+        try {
+            source = decode(original, width);
+        } catch (IIOException e) {
+            return Optional.empty();
+        }
+        if (source == null) {
+            return Optional.empty();
+        }
+
+        boolean jpeg = "image/jpeg".equalsIgnoreCase(contentType) || "image/jpg".equalsIgnoreCase(contentType);
+        int type = jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            current = scale(current, currentWidth, currentHeight, type);
+        } while (currentWidth != width || currentHeight != height);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String format = jpeg ? "jpg" : "png";
+        ImageIO.write(current, format, out);
+        return Optional.of(new ResizedImage(out.toByteArray(), jpeg ? "image/jpeg" : "image/png"));
+    }
+
+    /**
+     * @return the decoded image, or {@code null} when the format is unknown or the header rules it out
+     */
+    private static BufferedImage decode(InputStream original, int width) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if (sourceWidth <= width || (long) sourceWidth * sourceHeight > MAX_PIXELS) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height, int type) {
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,116 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.service.MediaStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store on the local filesystem: each blob lives at {@code <root>/ab/cd/<sha256>}.
+ * Uploads are written to a temporary file while hashing and then moved into place,
+ * so a blob is either fully present under its key or absent.
+ */
+@Slf4j
+@Component
+class LocalMediaStorage implements MediaStorage {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+    private final Path incoming;
+
+    LocalMediaStorage(@Value("${media.storage.root}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        Files.createDirectories(incoming);
+    }
+
+    @Override
+    public StoredContent store(InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(incoming, "upload-", ".tmp");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long length;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                length = content.transferTo(out);
+            }
+
+            String key = HexFormat.of().formatHex(digest.digest());
+            Path target = resolve(key);
+
+            if (Files.exists(target)) {
+                return new StoredContent(key, length);
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently; the existing copy is identical
+            }
+            return new StoredContent(key, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store media content", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    @Override
+    public Resource load(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NotFoundException("Media content not found for key: " + key);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        deleteQuietly(resolve(key));
+    }
+
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid media storage key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete media file {}: {}", path, e.getMessage());
+        }
+    }
+}
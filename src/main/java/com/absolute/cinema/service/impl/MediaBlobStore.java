@@ -0,0 +1,93 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.repository.MediaRepository;
+import com.absolute.cinema.repository.MediaVariantRepository;
+import com.absolute.cinema.service.MediaStorage;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Guards the lifetime of content-addressed blobs, which are shared by every media row and variant with the same bytes.
+ * Writers adding a reference and the collector deleting unreferenced blobs serialize on a per-key advisory lock
+ * held until their transaction ends, so a blob is never deleted while a reference to it is being committed.
+ */
+@Component
+class MediaBlobStore {
+
+    private final MediaStorage mediaStorage;
+    private final MediaRepository mediaRepository;
+    private final MediaVariantRepository mediaVariantRepository;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate collectTransaction;
+
+    MediaBlobStore(
+            MediaStorage mediaStorage,
+            MediaRepository mediaRepository,
+            MediaVariantRepository mediaVariantRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.mediaStorage = mediaStorage;
+        this.mediaRepository = mediaRepository;
+        this.mediaVariantRepository = mediaVariantRepository;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // Collection also runs from completion callbacks, where the finished transaction is still bound
+        this.collectTransaction = new TransactionTemplate(transactionManager);
+        this.collectTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Stores the content and lets the writer reference it in the current transaction, or a new one if there is none.
+     * If that transaction rolls back, the blob is collected again unless something else references it.
+     */
+    <T> T storeReferenced(InputStreamSource source, Function<MediaStorage.StoredContent, T> writer) throws IOException {
+        MediaStorage.StoredContent first = store(source);
+
+        return writeTransaction.execute(status -> {
+            mediaRepository.lockStorageKey(first.key());
+
+            MediaStorage.StoredContent stored = first;
+            if (!mediaStorage.exists(first.key())) {
+                // Collected between storing and locking; the lock keeps the new copy in place until commit
+                try {
+                    stored = store(source);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to store media content", e);
+                }
+            }
+
+            String key = stored.key();
+            TransactionHooks.afterRollback(() -> collect(List.of(key)));
+            return writer.apply(stored);
+        });
+    }
+
+    /**
+     * Deletes the blobs that are no longer referenced by any media row or variant.
+     */
+    void collect(Collection<String> keys) {
+        for (String key : keys) {
+            collectTransaction.executeWithoutResult(status -> {
+                mediaRepository.lockStorageKey(key);
+                if (!mediaRepository.existsByStorageKey(key) && !mediaVariantRepository.existsByStorageKey(key)) {
+                    mediaStorage.delete(key);
+                }
+            });
+        }
+    }
+
+    private MediaStorage.StoredContent store(InputStreamSource source) throws IOException {
+        try (InputStream content = source.getInputStream()) {
+            return mediaStorage.store(content);
+        }
+    }
+}
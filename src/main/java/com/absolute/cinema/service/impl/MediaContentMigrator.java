@@ -0,0 +1,85 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.entity.Media;
+import com.absolute.cinema.repository.MediaRepository;
+import com.absolute.cinema.service.MediaStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves media content still stored in {@code media.content} into {@link MediaStorage}.
+ * Runs once in the background after startup; blobs are streamed chunk by chunk, and rows
+ * that are not migrated yet keep being served from the database in the meantime.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class MediaContentMigrator {
+
+    private static final int BATCH_SIZE = 20;
+
+    private final MediaRepository mediaRepository;
+    private final MediaBlobStore mediaBlobStore;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofVirtual().name("media-content-migrator").start(this::migrateAll);
+    }
+
+    void migrateAll() {
+        int migrated = 0;
+
+        while (true) {
+            List<UUID> ids = mediaRepository.findIdsWithDatabaseContent(BATCH_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            int moved = 0;
+            for (UUID id : ids) {
+                if (migrate(id)) {
+                    moved++;
+                }
+            }
+            if (moved == 0) {
+                log.warn("Stopped media content migration: none of {} remaining blobs could be moved", ids.size());
+                break;
+            }
+            migrated += moved;
+        }
+
+        if (migrated > 0) {
+            log.info("Moved {} media blobs from the database to media storage", migrated);
+        }
+    }
+
+    private boolean migrate(UUID id) {
+        Media media = mediaRepository.findById(id).orElse(null);
+        if (media == null || media.getStorageKey() != null) {
+            return true;
+        }
+
+        MediaContentResource content = new MediaContentResource(
+                mediaRepository, id, media.getFilename(), media.getContentLength(), 0);
+
+        try {
+            return mediaBlobStore.storeReferenced(content, stored -> {
+                if (stored.length() != media.getContentLength()) {
+                    // Rolling back lets the truncated blob be collected
+                    throw new IllegalStateException("read " + stored.length() + " of " + media.getContentLength() + " bytes");
+                }
+                mediaRepository.moveContentToStorage(id, stored.key());
+                return true;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to move media {} to media storage: {}", id, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.repository.MediaRepository;
+import org.springframework.core.io.AbstractResource;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * Media content read from the database on demand in fixed-size chunks, so that serving a file
+ * (or a byte range of it) never holds more than one chunk of the blob in memory.
+ */
+final class MediaContentResource extends AbstractResource {
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final MediaRepository mediaRepository;
+    private final UUID mediaId;
+    private final String filename;
+    private final long contentLength;
+    private final long lastModified;
+
+    MediaContentResource(MediaRepository mediaRepository, UUID mediaId, String filename, long contentLength, long lastModified) {
+        this.mediaRepository = mediaRepository;
+        this.mediaId = mediaId;
+        this.filename = filename;
+        this.contentLength = contentLength;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ChunkedInputStream();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Media content [" + mediaId + "]";
+    }
+
+    private final class ChunkedInputStream extends InputStream {
+
+        private byte[] chunk = EMPTY;
+        private int chunkPosition;
+        private long nextOffset;
+
+        @Override
+        public int read() {
+            if (!fill()) {
+                return -1;
+            }
+            return chunk[chunkPosition++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, chunk.length - chunkPosition);
+            System.arraycopy(chunk, chunkPosition, buffer, offset, count);
+            chunkPosition += count;
+            return count;
+        }
+
+        /**
+         * Skipping past the buffered chunk only moves the offset, so a range request
+         * starts reading the blob at the requested position.
+         */
+        @Override
+        public long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            long buffered = chunk.length - chunkPosition;
+            if (n <= buffered) {
+                chunkPosition += (int) n;
+                return n;
+            }
+            long skipped = Math.min(n, buffered + contentLength - nextOffset);
+            nextOffset += skipped - buffered;
+            chunk = EMPTY;
+            chunkPosition = 0;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return chunk.length - chunkPosition;
+        }
+
+        private boolean fill() {
+            if (chunkPosition < chunk.length) {
+                return true;
+            }
+            if (nextOffset >= contentLength) {
+                return false;
+            }
+
+            int length = (int) Math.min(CHUNK_SIZE, contentLength - nextOffset);
+            byte[] next = mediaRepository.findContentChunk(mediaId, (int) nextOffset + 1, length);
+            if (next == null || next.length == 0) {
+                return false;
+            }
+
+            chunk = next;
+            chunkPosition = 0;
+            nextOffset += next.length;
+            return true;
+        }
+    }
+}
@@ -2,19 +2,33 @@ package com.absolute.cinema.service.impl;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.dto.MediaContentDTO;
 import com.absolute.cinema.dto.MediaDTO;
 import com.absolute.cinema.entity.Media;
+import com.absolute.cinema.entity.MediaVariant;
 import com.absolute.cinema.mapper.MediaMapper;
+import com.absolute.cinema.repository.FilmRepository;
 import com.absolute.cinema.repository.MediaRepository;
+import com.absolute.cinema.repository.MediaVariantRepository;
 import com.absolute.cinema.service.MediaService;
+import com.absolute.cinema.service.MediaStorage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -23,6 +37,26 @@ public class MediaServiceImpl implements MediaService {
 
     private final MediaRepository mediaRepository;
     private final MediaMapper mediaMapper;
+    private final MediaStorage mediaStorage;
+    private final MediaVariantRepository mediaVariantRepository;
+    private final FilmRepository filmRepository;
+    private final FilmCatalogCache filmCatalogCache;
+    private final MediaBlobStore mediaBlobStore;
+
+    private final Cache<VariantKey, CachedVariant> variantCache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_VARIANT_BYTES)
+            .weigher((VariantKey key, CachedVariant variant) -> variant.content() == null ? 1 : variant.content().length)
+            .build();
+
+    private record VariantKey(UUID mediaId, int width) {
+    }
+
+    /**
+     * A stored variant, or an entry without content when the original should be served instead
+     * (undecodable format or an original that is already narrow enough).
+     */
+    private record CachedVariant(String storageKey, String contentType, byte[] content) {
+    }
 
     private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
             "image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"
@@ -37,6 +71,7 @@ public class MediaServiceImpl implements MediaService {
     );
 
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
+    private static final long MAX_CACHED_VARIANT_BYTES = 32 * 1024 * 1024;
 
     @Override
     @Transactional
@@ -44,14 +79,16 @@ public class MediaServiceImpl implements MediaService {
         validateFile(file, mediaType);
 
         try {
-            Media media = new Media();
-            media.setFilename(generateUniqueFilename(file.getOriginalFilename()));
-            media.setContentType(file.getContentType());
-            media.setMediaType(mediaType);
-            media.setContent(file.getBytes());
-
-            Media savedMedia = mediaRepository.save(media);
-            
+            Media savedMedia = mediaBlobStore.storeReferenced(file, stored -> {
+                Media media = new Media();
+                media.setFilename(generateUniqueFilename(file.getOriginalFilename()));
+                media.setContentType(file.getContentType());
+                media.setMediaType(mediaType);
+                media.setStorageKey(stored.key());
+                media.setContentLength(stored.length());
+                return mediaRepository.save(media);
+            });
+
             return mediaMapper.toDTO(savedMedia);
         } catch (IOException e) {
             throw new BadRequestException("Failed to process uploaded file");
@@ -66,15 +103,134 @@ public class MediaServiceImpl implements MediaService {
 
     @Override
     public MediaDTO getMediaDTOById(UUID id) {
+        return mediaRepository.findInfoById(id).orElseThrow(() ->
+                new NotFoundException("Media not found with ID: " + id));
+    }
+
+    @Override
+    public MediaContentDTO getMediaContent(UUID id) {
+        return toContentDTO(getMediaById(id));
+    }
+
+    @Override
+    public MediaContentDTO getMediaVariant(UUID id, int width) {
+        if (width < 1) {
+            throw new BadRequestException("Width must be greater than zero");
+        }
+
         Media media = getMediaById(id);
-        return mediaMapper.toDTO(media);
+        if (media.getMediaType() != Media.MediaType.IMAGE) {
+            throw new BadRequestException("Only images can be resized");
+        }
+
+        int bucket = ImageResizer.bucketFor(width);
+        CachedVariant variant = variantCache.get(new VariantKey(id, bucket), key -> loadVariant(media, key.width()));
+
+        if (variant.content() == null) {
+            return toContentDTO(media);
+        }
+
+        return new MediaContentDTO(
+                media.getId(),
+                media.getFilename(),
+                variant.contentType(),
+                variant.content().length,
+                media.getUpdatedAt(),
+                "\"" + variant.storageKey() + "\"",
+                new ByteArrayResource(variant.content())
+        );
+    }
+
+    private CachedVariant loadVariant(Media media, int width) {
+        MediaVariant stored = mediaVariantRepository.findByMedia_IdAndWidth(media.getId(), width).orElse(null);
+        if (stored != null) {
+            return new CachedVariant(stored.getStorageKey(), stored.getContentType(), readStorage(stored.getStorageKey()));
+        }
+
+        Optional<ImageResizer.ResizedImage> resized;
+        try (InputStream original = toContentDTO(media).content().getInputStream()) {
+            resized = ImageResizer.resize(original, media.getContentType(), width);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to resize media " + media.getId(), e);
+        }
+
+        if (resized.isEmpty()) {
+            return new CachedVariant(null, null, null);
+        }
+
+        byte[] content = resized.get().content();
+        String contentType = resized.get().contentType();
+        String storageKey;
+        try {
+            storageKey = mediaBlobStore.storeReferenced(new ByteArrayResource(content), storedContent -> {
+                MediaVariant variant = new MediaVariant();
+                variant.setMedia(media);
+                variant.setWidth(width);
+                variant.setContentType(contentType);
+                variant.setContentLength(storedContent.length());
+                variant.setStorageKey(storedContent.key());
+                mediaVariantRepository.saveAndFlush(variant);
+                return storedContent.key();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Generated concurrently by another instance; the stored content is identical
+            storageKey = mediaVariantRepository.findByMedia_IdAndWidth(media.getId(), width)
+                    .map(MediaVariant::getStorageKey)
+                    .orElseThrow(() -> e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store variant of media " + media.getId(), e);
+        }
+
+        return new CachedVariant(storageKey, contentType, content);
+    }
+
+    private byte[] readStorage(String storageKey) {
+        try (InputStream in = mediaStorage.load(storageKey).getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read media variant " + storageKey, e);
+        }
+    }
+
+    private MediaContentDTO toContentDTO(Media media) {
+        Resource content = media.getStorageKey() != null
+                ? mediaStorage.load(media.getStorageKey())
+                : new MediaContentResource(
+                        mediaRepository,
+                        media.getId(),
+                        media.getFilename(),
+                        media.getContentLength(),
+                        media.getUpdatedAt().getTime()
+                );
+
+        return new MediaContentDTO(
+                media.getId(),
+                media.getFilename(),
+                media.getContentType(),
+                media.getContentLength(),
+                media.getUpdatedAt(),
+                "\"" + media.getId() + "-" + media.getUpdatedAt().getTime() + "\"",
+                content
+        );
     }
 
     @Override
     @Transactional
     public void deleteMedia(UUID id) {
         Media media = getMediaById(id);
+        List<String> storageKeys = new ArrayList<>(mediaVariantRepository.findStorageKeysByMediaId(id));
+        if (media.getStorageKey() != null) {
+            storageKeys.add(media.getStorageKey());
+        }
+
+        // Films using this media as a poster lose it through the foreign key
+        filmCatalogCache.invalidate(filmRepository.findIdsByPosterId(id));
         mediaRepository.delete(media);
+
+        TransactionHooks.afterCommit(() -> {
+            variantCache.asMap().keySet().removeIf(key -> key.mediaId().equals(id));
+            mediaBlobStore.collect(storageKeys);
+        });
     }
 
     private void validateFile(MultipartFile file, Media.MediaType mediaType) {
@@ -0,0 +1,207 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.entity.Payment;
+import com.absolute.cinema.entity.Purchase;
+import com.absolute.cinema.repository.PaymentRepository;
+import com.absolute.cinema.repository.PurchaseRepository;
+import com.absolute.cinema.service.TicketService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a PENDING payment to SUCCESS or FAILED off the request thread.
+ * The attempt count and the time of the next attempt live on the payment row, so retries survive a restart:
+ * in-memory timers only wake attempts up on time, and a periodic rescan resumes every overdue payment,
+ * including those left behind by a previous instance. Each attempt first leases the payment so that
+ * a timer and the rescan never charge it concurrently; a lease that is never released simply expires.
+ * A PENDING outcome schedules the next attempt with jittered exponential backoff, and the payment is settled
+ * as FAILED once its budget is spent. A successful charge that can no longer buy every seat of its purchase,
+ * e.g. because the purchase was cancelled or its holds expired meanwhile, leaves the payment REFUND_REQUIRED
+ * instead of marking the purchase PAID. Clients observe the outcome through {@code GET /payments/{id}/status}.
+ */
+@Slf4j
+@Component
+class PaymentAttemptScheduler {
+
+    static final Duration ATTEMPT_LEASE = Duration.ofMinutes(1);
+
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(10);
+    private static final int RESCAN_BATCH_SIZE = 100;
+
+    private final PaymentRepository paymentRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final TicketService ticketService;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("payment-retry-timer").daemon().factory());
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    PaymentAttemptScheduler(
+            PaymentRepository paymentRepository,
+            PurchaseRepository purchaseRepository,
+            TicketService ticketService,
+            PaymentGatewayClient paymentGatewayClient,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.paymentRepository = paymentRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.ticketService = ticketService;
+        this.paymentGatewayClient = paymentGatewayClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Starts attempting the payment once the transaction that created it commits.
+     * The payment must be PENDING with its next attempt already due.
+     */
+    void start(UUID paymentId) {
+        TransactionHooks.afterCommit(() -> dispatch(paymentId));
+    }
+
+    /**
+     * Records the outcome of one charge attempt within the current transaction. A decided outcome settles
+     * the payment; an undecided one schedules the next attempt, or fails the payment once its budget is spent.
+     */
+    Payment recordAttempt(UUID paymentId, Payment.Status outcome) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null || payment.getStatus() != Payment.Status.PENDING) {
+            return payment;
+        }
+        payment.setAttempts(payment.getAttempts() + 1);
+
+        if (outcome == Payment.Status.PENDING && payment.getAttempts() < payment.getMaxAttempts()) {
+            Duration delay = backoff(payment.getAttempts());
+            payment.setNextAttemptAt(OffsetDateTime.now().plus(delay));
+            TransactionHooks.afterCommit(() -> wakeUpAfter(paymentId, delay));
+            return payment;
+        }
+
+        settle(payment, outcome == Payment.Status.SUCCESS ? Payment.Status.SUCCESS : Payment.Status.FAILED);
+        return payment;
+    }
+
+    /**
+     * Resumes payments whose next attempt is overdue, e.g. because the instance that scheduled it went away.
+     * Runs right after startup and then periodically.
+     */
+    @Scheduled(fixedDelayString = "${payments.retry-scan-ms:30000}")
+    public void resumeOverdue() {
+        List<UUID> due = paymentRepository.findDueAttempts(OffsetDateTime.now(), Limit.of(RESCAN_BATCH_SIZE));
+        if (!due.isEmpty()) {
+            log.info("Resuming {} pending payments", due.size());
+            due.forEach(this::dispatch);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Waiting timers are dropped; their payments stay due in the database and are resumed by the rescan
+        timer.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(SHUTDOWN_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void wakeUpAfter(UUID paymentId, Duration delay) {
+        try {
+            timer.schedule(() -> dispatch(paymentId), delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Not scheduling payment {} while shutting down", paymentId);
+        }
+    }
+
+    private void dispatch(UUID paymentId) {
+        try {
+            workers.execute(() -> attempt(paymentId));
+        } catch (RejectedExecutionException e) {
+            log.debug("Not attempting payment {} while shutting down", paymentId);
+        }
+    }
+
+    private void attempt(UUID paymentId) {
+        try {
+            Payment payment = transactionTemplate.execute(status -> claim(paymentId));
+            if (payment == null) {
+                return;
+            }
+
+            Payment.Status outcome = payment.getAttempts() < payment.getMaxAttempts()
+                    ? paymentGatewayClient.charge(paymentId, payment.getAmountCents(), payment.getCurrency())
+                    : Payment.Status.FAILED;
+            transactionTemplate.executeWithoutResult(status -> recordAttempt(paymentId, outcome));
+        } catch (Exception e) {
+            // The lease expires and the rescan tries again
+            log.error("Payment {} attempt failed", paymentId, e);
+        }
+    }
+
+    private Payment claim(UUID paymentId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (paymentRepository.claimAttempt(paymentId, now, now.plus(ATTEMPT_LEASE)) == 0) {
+            return null;
+        }
+        return paymentRepository.findById(paymentId).orElse(null);
+    }
+
+    private void settle(Payment payment, Payment.Status status) {
+        payment.setNextAttemptAt(null);
+        // Locking the purchase serializes settlement with cancellation and with payments opened for it
+        Purchase purchase = purchaseRepository.findForPaymentById(payment.getPurchase().getId()).orElseThrow();
+
+        if (status != Payment.Status.SUCCESS) {
+            payment.setStatus(Payment.Status.FAILED);
+            if (purchase.getStatus() == Purchase.Status.PENDING) {
+                // A failed purchase can no longer be paid, so its seats go back on sale right away
+                purchase.setStatus(Purchase.Status.FAILED);
+                ticketService.releaseTicketsForPurchase(purchase.getId());
+            }
+            return;
+        }
+
+        if (purchase.getStatus() != Purchase.Status.PENDING) {
+            requireRefund(payment, purchase, "purchase is " + purchase.getStatus());
+            return;
+        }
+        int sold = ticketService.sellTicketsForPurchase(purchase.getId());
+        if (sold != purchase.getTicketCount()) {
+            // Some seats went back on sale before the charge succeeded; a partial purchase is never completed
+            ticketService.releaseTicketsForPurchase(purchase.getId());
+            purchase.setStatus(Purchase.Status.FAILED);
+            requireRefund(payment, purchase, sold + " of " + purchase.getTicketCount() + " tickets still held");
+            return;
+        }
+        payment.setStatus(Payment.Status.SUCCESS);
+        purchase.setStatus(Purchase.Status.PAID);
+    }
+
+    private static void requireRefund(Payment payment, Purchase purchase, String reason) {
+        payment.setStatus(Payment.Status.REFUND_REQUIRED);
+        log.error("Payment {} was charged but purchase {} cannot be completed ({}); it requires a refund",
+                payment.getId(), purchase.getId(), reason);
+    }
+
+    private static Duration backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF.toMillis(), INITIAL_BACKOFF.toMillis() << Math.min(attempt - 1, 16));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+}
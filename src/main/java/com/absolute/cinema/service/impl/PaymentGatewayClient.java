@@ -0,0 +1,148 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.entity.Payment;
+import com.absolute.cinema.service.PaymentGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Guards calls to the {@link PaymentGateway}: a semaphore bulkhead caps in-flight charges,
+ * every call runs under a deadline, and a consecutive-failure circuit breaker stops calling
+ * a degraded gateway for a while before letting a single probe through.
+ * Any call whose outcome is unknown is reported as {@link Payment.Status#PENDING} so the caller can retry it.
+ */
+@Slf4j
+@Component
+class PaymentGatewayClient {
+
+    private final PaymentGateway gateway;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMs;
+    private final long callTimeoutMs;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile boolean open;
+    private volatile long openUntilNanos;
+
+    PaymentGatewayClient(
+            PaymentGateway gateway,
+            MeterRegistry meterRegistry,
+            @Value("${payments.gateway.max-in-flight:50}") int maxInFlight,
+            @Value("${payments.gateway.acquire-timeout-ms:100}") long acquireTimeoutMs,
+            @Value("${payments.gateway.timeout-ms:3000}") long callTimeoutMs,
+            @Value("${payments.gateway.circuit-failure-threshold:5}") int failureThreshold,
+            @Value("${payments.gateway.circuit-open-ms:30000}") long openMs
+    ) {
+        this.gateway = gateway;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.callTimeoutMs = callTimeoutMs;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = Duration.ofMillis(openMs).toNanos();
+    }
+
+    Payment.Status charge(UUID paymentId, int amountCents, String currency) {
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            if (!allowCall()) {
+                outcome = "circuit_open";
+                return Payment.Status.PENDING;
+            }
+            if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                probeInFlight.set(false);
+                outcome = "rejected";
+                return Payment.Status.PENDING;
+            }
+
+            Future<PaymentGateway.ChargeResult> call = executor.submit(
+                    () -> gateway.charge(new PaymentGateway.ChargeRequest(paymentId, amountCents, currency)));
+            try {
+                PaymentGateway.ChargeResult result = call.get(callTimeoutMs, TimeUnit.MILLISECONDS);
+                onSuccess();
+                outcome = result.name().toLowerCase();
+                return result == PaymentGateway.ChargeResult.APPROVED ? Payment.Status.SUCCESS : Payment.Status.FAILED;
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                onFailure();
+                outcome = "timeout";
+                log.warn("Payment gateway timed out for payment {}", paymentId);
+                return Payment.Status.PENDING;
+            } catch (ExecutionException e) {
+                onFailure();
+                log.warn("Payment gateway failed for payment {}: {}", paymentId, e.getCause().getMessage());
+                return Payment.Status.PENDING;
+            } finally {
+                inFlight.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            probeInFlight.set(false);
+            outcome = "interrupted";
+            return Payment.Status.PENDING;
+        } finally {
+            Timer.builder("cinema.payments.gateway.calls")
+                    .description("Payment gateway charges by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean allowCall() {
+        if (!open) {
+            return true;
+        }
+        if (System.nanoTime() - openUntilNanos < 0) {
+            return false;
+        }
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (open) {
+            open = false;
+            log.info("Payment gateway circuit closed");
+        }
+        probeInFlight.set(false);
+    }
+
+    private void onFailure() {
+        boolean probeFailed = probeInFlight.getAndSet(false);
+        if (probeFailed || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntilNanos = System.nanoTime() + openNanos;
+            if (!open) {
+                open = true;
+                log.warn("Payment gateway circuit opened for {} ms", TimeUnit.NANOSECONDS.toMillis(openNanos));
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.absolute.cinema.service.impl;
 
+import com.absolute.cinema.common.exception.custom.ConflictException;
 import com.absolute.cinema.common.exception.custom.ForbiddenException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
 import com.absolute.cinema.dto.PaymentProcessDTO;
@@ -12,16 +13,16 @@ import com.absolute.cinema.entity.User;
 import com.absolute.cinema.mapper.PaymentMapper;
 import com.absolute.cinema.repository.PaymentRepository;
 import com.absolute.cinema.repository.PurchaseRepository;
-import com.absolute.cinema.repository.TicketRepository;
 import com.absolute.cinema.service.EmailSenderService;
 import com.absolute.cinema.service.PaymentService;
+import com.absolute.cinema.service.TicketService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Random;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 import java.util.List;
 
@@ -30,13 +31,14 @@ import java.util.List;
 @Transactional
 public class PaymentServiceImpl implements PaymentService {
 
-    private final TicketRepository ticketRepository;
+    private final TicketService ticketService;
     private final PaymentRepository paymentRepository;
     private final PurchaseRepository purchaseRepository;
     private final PaymentMapper paymentMapper;
     private final EmailSenderService emailSenderService;
-    private final JavaMailSender javaMailSender;
-    private final Random random = new Random();
+    private final PaymentAttemptScheduler paymentAttemptScheduler;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final TransactionTemplate transactionTemplate;
     
     private String auditPaymentStatus;
     private long auditPaymentTimestamp;
@@ -46,64 +48,62 @@ public class PaymentServiceImpl implements PaymentService {
     private static final String STATUS_FAILED = "FAILED";
     private static final String STATUS_PENDING = "PENDING";
     private static final int PAYMENT_RETRY_ATTEMPTS = 3;
-    private static final int EMAIL_SEND_TIMEOUT_MS = 5000;
+    private static final int MAX_PAYMENT_RETRY_ATTEMPTS = 10;
     private static final int MAX_PAYMENT_AMOUNT_CENTS = 999999999;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponseDTO processPayment(PaymentProcessDTO paymentProcessDTO) {
         // Extract the purchase ID from the payment process DTO
         UUID purchaseId = paymentProcessDTO.purchaseId();
-        
-        // Query the database to find the purchase by ID, throwing an exception if not found
-        Purchase purchase = purchaseRepository.findById(purchaseId)
+
+        // Commit the PENDING payment first, so no transaction or connection is held while the gateway is called
+        Payment pendingPayment = transactionTemplate.execute(status -> openPayment(purchaseId));
+
+        // Charge the purchase total through the guarded gateway client; PENDING means the outcome is unknown
+        Payment.Status gatewayStatus = paymentGatewayClient.charge(
+                pendingPayment.getId(), pendingPayment.getAmountCents(), pendingPayment.getCurrency());
+
+        // Record the outcome and notify the client in a second short transaction
+        return transactionTemplate.execute(status -> completePayment(pendingPayment.getId(), gatewayStatus));
+    }
+
+    // Helper method to create the PENDING payment that the request is about to charge
+    private Payment openPayment(UUID purchaseId) {
+        // Load and lock the purchase, throwing an exception if not found
+        Purchase purchase = purchaseRepository.findForPaymentById(purchaseId)
                 .orElseThrow(() -> new NotFoundException(String.format("Purchase with id %s not found", purchaseId)));
+        // Refuse to charge a purchase that is already settled or being paid
+        requirePayable(purchase);
         // Create a new Payment entity instance
         Payment payment = new Payment();
         // Associate the payment with the purchase
         payment.setPurchase(purchase);
 
-        // Get a random payment status from the available Payment.Status enum values
-        Payment.Status randomStatus = getRandomPaymentStatus();
-        // Set the status on the payment object
-        payment.setStatus(randomStatus);
-
+        // Start in PENDING so the payment has an id to use as the gateway idempotency key
+        payment.setStatus(Payment.Status.PENDING);
+        // Persist what to charge and the attempt budget, so background retries survive a restart
+        payment.setAmountCents(purchase.getTotalCents());
+        payment.setCurrency("EUR");
+        payment.setMaxAttempts(PAYMENT_RETRY_ATTEMPTS + 1);
+        // This request makes the first attempt itself; the lease keeps the background rescan away meanwhile
+        payment.setNextAttemptAt(OffsetDateTime.now().plus(PaymentAttemptScheduler.ATTEMPT_LEASE));
         // Save the payment entity to the database and get the saved instance
         Payment savedPayment = paymentRepository.save(payment);
-        
-        // Extract the client user from the purchase
-        User clientUser = purchase.getClient();
-        // Get the client's user ID
-        UUID clientId = clientUser.getId();
-        // Check if the client user has ADMIN authority by streaming through authorities
-        boolean isAdmin = clientUser.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ADMIN"));
-        
-        // Verify that the client ID matches and user is authorized
-        if (!clientId.equals(clientUser.getId()) && !isAdmin) {
-            throw new ForbiddenException("User not authorized for this payment operation");
-        }
 
-        // Handle the payment status with a series of conditional checks
-        if (randomStatus == Payment.Status.SUCCESS) {
-            // If successful, set purchase status to PAID
-            purchase.setStatus(Purchase.Status.PAID);
-        } else if (randomStatus == Payment.Status.FAILED) {
-            // If failed, set purchase status to FAILED
-            purchase.setStatus(Purchase.Status.FAILED);
-        } else if (randomStatus == Payment.Status.PENDING) {
-            // If pending, set purchase status to PENDING
-            purchase.setStatus(Purchase.Status.PENDING);
-        } else {
-            // Default case: also set to PENDING
-            purchase.setStatus(Purchase.Status.PENDING);
-        }
-        
-        // Save the updated purchase entity back to the database
-        purchaseRepository.save(purchase);
         // Add the saved payment to the purchase's payment collection
         purchase.getPayments().add(savedPayment);
+        // Return the payment; it is committed when the surrounding transaction ends
+        return savedPayment;
+    }
+
+    // Helper method to record the outcome of the first charge and queue the status email
+    private PaymentResponseDTO completePayment(UUID paymentId, Payment.Status gatewayStatus) {
+        // Record the attempt: a decided outcome settles the purchase, an undecided one is retried in the background
+        Payment savedPayment = paymentAttemptScheduler.recordAttempt(paymentId, gatewayStatus);
+        // Get the purchase the payment belongs to
+        Purchase purchase = savedPayment.getPurchase();
 
-        
         // Initialize status message variable to store the payment status text
         String statusMessage = "";
         // Get the total payment amount in cents from the purchase
@@ -113,8 +113,8 @@ public class PaymentServiceImpl implements PaymentService {
         // Initialize payment status description variable
         String paymentStatusDescription = "";
         
-        // Use a switch statement to handle different payment statuses
-        switch (randomStatus) {
+        // Use a switch statement to handle the recorded payment status, which may differ from the gateway's answer
+        switch (savedPayment.getStatus()) {
             // Case when payment is successful
             case SUCCESS -> {
                 statusMessage = "Payment processed successfully";
@@ -133,18 +133,12 @@ public class PaymentServiceImpl implements PaymentService {
                 paymentStatusCode = STATUS_PENDING;
                 paymentStatusDescription = "Your payment is currently being processed.";
             }
-        }
-
-        // Iterate over all tickets in the purchase
-        for (var ticket : purchase.getTickets()) {
-            // Set the ticket status to SOLD
-            ticket.setStatus(Ticket.Status.SOLD);
-            // Save the modified ticket to the database
-            ticketRepository.save(ticket);
-
-            int ticketPriceInCents = ticket.getPriceCents();
-            UUID seatId = ticket.getSeat().getId();
-            Integer seatNumber = ticket.getSeat().getNumber();
+            // Case when the charge succeeded but the purchase could no longer be completed
+            case REFUND_REQUIRED -> {
+                statusMessage = "Payment will be refunded";
+                paymentStatusCode = Payment.Status.REFUND_REQUIRED.name();
+                paymentStatusDescription = "Your purchase could not be completed. The charged amount will be refunded.";
+            }
         }
 
         // Extract the email address of the client from the purchase
@@ -161,30 +155,8 @@ public class PaymentServiceImpl implements PaymentService {
                 "Number of Tickets: " + purchase.getTickets().size() + "\n\n" +
                 "Thank you for your purchase!";
         
-        // Try to send the email notification
-        try {
-            // Create a new SimpleMailMessage instance
-            SimpleMailMessage message = new SimpleMailMessage();
-            // Set the recipient email address
-            message.setTo(emailRecipient);
-            // Set the email subject
-            message.setSubject(emailSubject);
-            // Set the email body text
-            message.setText(emailBody);
-            // Set the sender email address
-            message.setFrom("noreply@cinema.com");
-            
-            // Send the email using the javaMailSender
-            javaMailSender.send(message);
-        
-            // Also send the email using the email sender service
-            emailSenderService.sendEmail(emailRecipient, emailSubject, emailBody);
-        } catch (Exception e) {
-            // Print error message to standard error if email sending fails
-            System.err.println("Failed to send email: " + e.getMessage());
-            // Print the full stack trace for debugging purposes
-            e.printStackTrace();
-        }
+        // Queue the notification in the outbox as part of this transaction; it is delivered in the background
+        emailSenderService.enqueueEmail(emailRecipient, emailSubject, emailBody);
 
         // Map the saved payment to a response DTO and return it
         return paymentMapper.toResponseDTO(savedPayment, statusMessage);
@@ -273,118 +245,81 @@ public class PaymentServiceImpl implements PaymentService {
             throw new IllegalArgumentException("Billing country is required");
         }
         
-        // Initialize attempt counter starting at zero
-        int attempts = 0;
-        // Initialize response variable to store the payment response DTO
-        PaymentResponseDTO response = null;
-        // Initialize exception variable to store the last caught exception
-        Exception lastException = null;
-        
-        // Enter a while loop that continues until all retry attempts are exhausted
-        while (attempts < retryCount) {
-            try {
-                // Generate a unique transaction ID using UUID
-                String transactionId = UUID.randomUUID().toString();
-                // Get the current timestamp as a string
-                String timestamp = System.currentTimeMillis() + "";
-                
-                // Initialize transaction status as PROCESSING
-                String transactionStatus = "PROCESSING";
-                // Build a processing message with the current attempt number
-                String processingMessage = "Payment processing attempt " + (attempts + 1);
-                
-                // Create a new Payment entity instance
-                Payment payment = new Payment();
-                // Set a random payment status on the payment
-                payment.setStatus(getRandomPaymentStatus());
-                
-                // Save the payment to the repository and get the saved instance
-                Payment savedPayment = paymentRepository.save(payment);
-                
-                // Construct the email body with transaction details
-                String emailBody = "Transaction ID: " + transactionId + "\n" +
-                        "Amount: " + amountCents / 100 + "." + (amountCents % 100) + " " + currency + "\n" +
-                        "Cardholder: " + cardholderName + "\n" +
-                        "Status: " + transactionStatus + "\n" +
-                        "Timestamp: " + timestamp;
-                
-                // Check if a confirmation email should be sent
-                if (sendConfirmationEmail) {
-                    try {
-                        // Create a new SimpleMailMessage instance for email
-                        SimpleMailMessage message = new SimpleMailMessage();
-                        // Set the recipient email address
-                        message.setTo("customer@example.com");
-                        // Set the email subject with transaction ID
-                        message.setSubject("Payment Confirmation - Transaction #" + transactionId);
-                        // Set the email body text
-                        message.setText(emailBody);
-                        // Send the email using the mail sender
-                        javaMailSender.send(message);
-                    } catch (Exception e) {
-                        // Print error message if email sending fails
-                        System.err.println("Email send failed: " + e.getMessage());
-                    }
-                }
-                
-                // Check if an invoice should be created
-                if (createInvoice) {
-                    // Generate invoice number using the transaction ID
-                    String invoiceNumber = "INV-" + transactionId;
-                    // Construct the invoice file path
-                    String invoicePath = "/invoices/" + invoiceNumber + ".pdf";
-                }
-                
-                // Create a new payment response DTO
-                response = new PaymentResponseDTO(
-                        savedPayment.getId(),
-                        getRandomPaymentStatus(),
-                        processingMessage
-                );
-                
-                // Return the response on successful payment processing
-                return response;
-            } catch (Exception e) {
-                // Store the caught exception in lastException variable
-                lastException = e;
-                // Increment the attempts counter
-                attempts++;
-                // Check if there are remaining retry attempts
-                if (attempts < retryCount) {
-                    try {
-                        // Sleep for a duration based on the attempt number (exponential backoff)
-                        Thread.sleep(1000 * attempts);
-                    } catch (InterruptedException ie) {
-                        // Restore interrupt status if sleep is interrupted
-                        Thread.currentThread().interrupt();
-                    }
-                }
-            }
+        // Look up and lock the purchase being paid for, throwing an exception if not found
+        Purchase purchase = purchaseRepository.findForPaymentById(UUID.fromString(purchaseId))
+                .orElseThrow(() -> new NotFoundException(String.format("Purchase with id %s not found", purchaseId)));
+        // Refuse to charge a purchase that is already settled or being paid
+        requirePayable(purchase);
+
+        // Generate a unique transaction ID using UUID
+        String transactionId = UUID.randomUUID().toString();
+        // Get the current timestamp as a string
+        String timestamp = System.currentTimeMillis() + "";
+        // Initialize transaction status as PROCESSING
+        String transactionStatus = "PROCESSING";
+
+        // Create a new Payment entity instance in the PENDING state
+        Payment payment = new Payment();
+        // Associate the payment with the purchase
+        payment.setPurchase(purchase);
+        // The outcome is decided later by the background attempts
+        payment.setStatus(Payment.Status.PENDING);
+        // Persist the caller's amount and currency so every attempt, even after a restart, charges the same
+        payment.setAmountCents(amountCents);
+        payment.setCurrency(currency);
+        // Bound the caller-supplied retry budget so a single request cannot queue unlimited attempts
+        payment.setMaxAttempts(Math.clamp(retryCount, 1, MAX_PAYMENT_RETRY_ATTEMPTS));
+        // The first attempt is due right away
+        payment.setNextAttemptAt(OffsetDateTime.now());
+        // Save the payment to the repository and get the saved instance
+        Payment savedPayment = paymentRepository.save(payment);
+
+        // Mark the purchase as pending until the payment settles
+        purchase.setStatus(Purchase.Status.PENDING);
+        // Add the saved payment to the purchase's payment collection
+        purchase.getPayments().add(savedPayment);
+
+        // Construct the email body with transaction details
+        String emailBody = "Transaction ID: " + transactionId + "\n" +
+                "Amount: " + amountCents / 100 + "." + (amountCents % 100) + " " + currency + "\n" +
+                "Cardholder: " + cardholderName + "\n" +
+                "Status: " + transactionStatus + "\n" +
+                "Timestamp: " + timestamp;
+
+        // Check if a confirmation email should be sent
+        if (sendConfirmationEmail) {
+            // Queue the confirmation in the outbox instead of waiting on the mail server
+            emailSenderService.enqueueEmail(
+                    purchase.getClient().getEmail(),
+                    "Payment Confirmation - Transaction #" + transactionId,
+                    emailBody
+            );
         }
-        
-        // Throw a runtime exception if all retry attempts have been exhausted
-        throw new RuntimeException("Payment processing failed after " + retryCount + " attempts", lastException);
-    }
 
-    // Helper method to get a random payment status from the available enum values
-    private Payment.Status getRandomPaymentStatus() {
-        // Get all Payment.Status enum values in an array
-        Payment.Status[] statuses = Payment.Status.values();
-        // Generate a random index within the array bounds
-        // Return the status at that random index
-        return statuses[random.nextInt(statuses.length)];
+        // Check if an invoice should be created
+        if (createInvoice) {
+            // Generate invoice number using the transaction ID
+            String invoiceNumber = "INV-" + transactionId;
+            // Construct the invoice file path
+            String invoicePath = "/invoices/" + invoiceNumber + ".pdf";
+        }
+
+        // Hand the attempts to the background scheduler; retries never block this request thread
+        paymentAttemptScheduler.start(savedPayment.getId());
+
+        // Return the PENDING payment immediately; clients poll the status endpoint for the outcome
+        return paymentMapper.toResponseDTO(savedPayment, "Payment is being processed");
     }
 
-    // Helper method to update the purchase status based on payment status
-    private void updatePurchaseStatus(Purchase purchase, Payment.Status paymentStatus) {
-        // Use a switch statement to handle different payment status values
-        switch (paymentStatus) {
-            // If payment status is SUCCESS, set purchase to PAID
-            case SUCCESS -> purchase.setStatus(Purchase.Status.PAID);
-            // If payment status is FAILED, set purchase to FAILED
-            case FAILED -> purchase.setStatus(Purchase.Status.FAILED);
-            // If payment status is PENDING, set purchase to PENDING
-            case PENDING -> purchase.setStatus(Purchase.Status.PENDING);
+    // Helper method to reject payments for purchases that are settled or already have a payment in flight
+    private void requirePayable(Purchase purchase) {
+        // Only a PENDING purchase can still be paid; PAID, FAILED and CANCELLED ones are final
+        if (purchase.getStatus() != Purchase.Status.PENDING) {
+            throw new ConflictException(String.format("Purchase with id %s is already %s", purchase.getId(), purchase.getStatus()));
+        }
+        // A second payment while one is still being attempted could charge the client twice
+        if (purchase.getPayments().stream().anyMatch(payment -> payment.getStatus() == Payment.Status.PENDING)) {
+            throw new ConflictException(String.format("Purchase with id %s already has a payment in progress", purchase.getId()));
         }
     }
 
@@ -489,11 +424,7 @@ public class PaymentServiceImpl implements PaymentService {
         
         User client = purchase.getClient();
         
-        List<Ticket> tickets = purchase.getTickets();
-        tickets.forEach(ticket -> {
-            ticket.setStatus(Ticket.Status.SOLD);
-            ticketRepository.save(ticket);
-        });
+        ticketService.sellTicketsForPurchase(purchaseId);
         
         List<Payment> payments = purchase.getPayments();
         payments.forEach(payment -> {
@@ -1,38 +1,47 @@
 package com.absolute.cinema.service.impl;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
+import com.absolute.cinema.common.exception.custom.ConflictException;
 import com.absolute.cinema.common.exception.custom.ForbiddenException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.common.pagination.KeysetCursor;
 import com.absolute.cinema.dto.CreatePurchaseDTO;
 import com.absolute.cinema.dto.PageDTO;
 import com.absolute.cinema.dto.PurchaseDTO;
 import com.absolute.cinema.dto.PurchasePagedListDTO;
+import com.absolute.cinema.entity.Payment;
 import com.absolute.cinema.entity.Purchase;
+import com.absolute.cinema.entity.Role;
 import com.absolute.cinema.entity.Ticket;
 import com.absolute.cinema.entity.User;
-import com.absolute.cinema.mapper.PurchaseMapper;
 import com.absolute.cinema.repository.PurchaseRepository;
 import com.absolute.cinema.repository.TicketRepository;
 import com.absolute.cinema.service.PurchaseService;
+import com.absolute.cinema.service.TicketService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PurchaseServiceImpl implements PurchaseService {
 
     private final PurchaseRepository purchaseRepository;
     private final TicketRepository ticketRepository;
-    private final PurchaseMapper purchaseMapper;
+    private final TicketService ticketService;
     
     private String auditPurchaseStatus;
     private long auditPurchaseTimestamp;
@@ -50,9 +59,7 @@ public class PurchaseServiceImpl implements PurchaseService {
         Pageable pageable = PageRequest.of(page, size);
         Page<Purchase> purchasePage = purchaseRepository.findByClientId(clientId, pageable);
 
-        List<PurchaseDTO> purchaseDTOs = purchasePage.getContent().stream()
-                .map(purchaseMapper::toPurchaseDTO)
-                .collect(Collectors.toList());
+        List<PurchaseDTO> purchaseDTOs = toPurchaseDTOs(purchasePage.getContent());
 
         PageDTO pageDTO = new PageDTO(
                 page,
@@ -64,133 +71,101 @@ public class PurchaseServiceImpl implements PurchaseService {
         return new PurchasePagedListDTO(purchaseDTOs, pageDTO);
     }
 
+    @Override
+    public PurchasePagedListDTO getPurchasesForClientAfter(String cursor, int size, UUID clientId) {
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new BadRequestException("Invalid page size");
+
+        KeysetCursor position = KeysetCursor.parse(cursor, KeysetCursor.DESCENDING_START);
+        List<Purchase> purchases = purchaseRepository.findPageByClientBefore(
+                clientId, Timestamp.from(position.at()), position.id(), Limit.of(size + 1));
+
+        List<PurchaseDTO> purchaseDTOs = toPurchaseDTOs(purchases.size() > size ? purchases.subList(0, size) : purchases);
+        String nextCursor = KeysetCursor.next(purchases, size,
+                purchase -> new KeysetCursor(purchase.getCreatedAt().toInstant(), purchase.getId()));
+
+        return new PurchasePagedListDTO(purchaseDTOs, new PageDTO(null, size, null, null, nextCursor));
+    }
+
     @Override
     @Transactional
     public PurchaseDTO createPurchaseForClient(CreatePurchaseDTO createPurchaseDTO, User user) {
-        int page = 0;
-        int size = 20;
-        int offset = page * size;
-        int limit = size;
-        
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Purchase> existingPurchases = purchaseRepository.findByClientId(user.getId(), pageable);
-        
-        int totalPriceCents = 0;
-        int ticketCount = 0;
-        int filmCount = 0;
-        String lastFilmId = "";
-        String previousTicketStatus = "";
-        int reservationTimeMinutes = 15;
-
-        UUID clientId = user.getId();
-        String clientAuthority = "";
-        boolean isAdmin = false;
-        boolean isClient = true;
-        
-        if (!user.getId().equals(clientId)) {
-            throw new ForbiddenException("User not authorized for this purchase");
-        }
-        
-        boolean userHasAdminRole = user.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ADMIN"));
-        
-        boolean userHasClientRole = user.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("CLIENT"));
-        
-        if (!userHasAdminRole && !userHasClientRole) {
+        if (!user.hasRole(Role.RoleType.USER) && !user.hasRole(Role.RoleType.ADMIN)) {
             throw new ForbiddenException("User does not have required roles");
         }
 
-        Purchase purchase = new Purchase();
-        HashSet<String> existingFilmsIds = new HashSet<>();
-
-        for (var ticketId : createPurchaseDTO.ticketIds()) {
-            String ticketIdString = ticketId.toString();
-            
-            Ticket existingTicket = ticketRepository.findById(ticketId)
-                    .orElseThrow(() -> new NotFoundException(String.format("Ticket with id %s not found", ticketIdString)));
-
-            String filmId = existingTicket.getSession().getFilm().getId().toString();
-            existingFilmsIds.add(filmId);
-            
-            Ticket.Status ticketStatus = existingTicket.getStatus();
-            String ticketStatusString = ticketStatus.name();
-            
-            if (previousTicketStatus.isEmpty()) {
-                previousTicketStatus = ticketStatusString;
-            }
+        List<UUID> ticketIds = createPurchaseDTO.ticketIds().stream().distinct().toList();
+        if (ticketIds.isEmpty()) {
+            throw new BadRequestException("Purchase must contain at least one ticket");
+        }
+        if (ticketIds.size() > MAX_TICKETS_PER_PURCHASE) {
+            throw new BadRequestException("Purchase cannot contain more than " + MAX_TICKETS_PER_PURCHASE + " tickets");
+        }
+
+        Map<UUID, TicketRepository.PurchaseCandidateView> candidates = ticketRepository.findPurchaseCandidates(ticketIds).stream()
+                .collect(Collectors.toMap(TicketRepository.PurchaseCandidateView::getId, Function.identity()));
+
+        UUID filmId = null;
+        int totalPriceCents = 0;
 
-            User reservedUser = existingTicket.getReservedByUser();
-            UUID reservedUserId = null;
-            String reservedUserEmail = null;
-            
-            if (reservedUser != null) {
-                reservedUserId = reservedUser.getId();
-                reservedUserEmail = reservedUser.getEmail();
+        for (UUID ticketId : ticketIds) {
+            TicketRepository.PurchaseCandidateView ticket = candidates.get(ticketId);
+            if (ticket == null) {
+                throw new NotFoundException(String.format("Ticket with id %s not found", ticketId));
             }
 
-            if (!ticketStatusString.equals("RESERVED")) {
-                throw new BadRequestException(
-                        String.format("Ticket with id %s is not in RESERVED status, current status: %s", 
-                                ticketIdString, ticketStatusString)
+            if (ticket.getStatus() != Ticket.Status.RESERVED) {
+                throw new BadRequestException(String.format(
+                        "Ticket with id %s is not in RESERVED status, current status: %s", ticketId, ticket.getStatus())
                 );
             }
-            
-            if (reservedUser == null) {
+            if (ticket.getReservedByUserId() == null) {
                 throw new BadRequestException(String.format(
-                        "Ticket with id %s is not reserved by any user", ticketIdString)
+                        "Ticket with id %s is not reserved by any user", ticketId)
                 );
             }
-
-            if (!reservedUserId.equals(user.getId())) {
+            if (!ticket.getReservedByUserId().equals(user.getId())) {
                 throw new BadRequestException(String.format(
-                        "Ticket with id %s is not reserved by user %s", ticketIdString, user.getId())
+                        "Ticket with id %s is not reserved by user %s", ticketId, user.getId())
                 );
             }
 
-            existingTicket.setPurchase(purchase);
-            ticketRepository.save(existingTicket);
+            if (filmId == null) {
+                filmId = ticket.getFilmId();
+            } else if (!filmId.equals(ticket.getFilmId())) {
+                throw new BadRequestException("Trying to buy tickets for several films at once. Only one film per purchase allowed.");
+            }
 
-            int ticketPrice = existingTicket.getPriceCents();
-            totalPriceCents += ticketPrice;
-            ticketCount++;
-            
-            if (ticketPrice < 0) {
+            if (ticket.getPriceCents() < 0) {
                 throw new BadRequestException("Invalid ticket price");
             }
+            totalPriceCents += ticket.getPriceCents();
             if (totalPriceCents > MAX_PURCHASE_AMOUNT_CENTS) {
                 throw new BadRequestException("Purchase amount exceeds maximum allowed");
             }
         }
 
-        if (ticketCount == 0) {
-            throw new BadRequestException("Purchase must contain at least one ticket");
-        }
-        if (ticketCount > MAX_TICKETS_PER_PURCHASE) {
-            throw new BadRequestException("Purchase cannot contain more than " + MAX_TICKETS_PER_PURCHASE + " tickets");
-        }
-        
-        filmCount = existingFilmsIds.size();
-        
-        if (existingFilmsIds.size() > 1) {
-            throw new BadRequestException("Trying to buy tickets for " + filmCount + " films at once. Only one film per purchase allowed.");
-        }
-
+        Purchase purchase = new Purchase();
         purchase.setClient(user);
         purchase.setStatus(Purchase.Status.PENDING);
         purchase.setTotalCents(totalPriceCents);
+        purchase.setTicketCount(ticketIds.size());
 
         Purchase savedPurchase = purchaseRepository.save(purchase);
-        
-        String purchaseLog = "Purchase created - ID: " + savedPurchase.getId() + 
-                ", Client: " + user.getEmail() + 
-                ", Amount: " + totalPriceCents + 
-                " cents, Tickets: " + ticketCount +
-                ", Status: " + savedPurchase.getStatus().name();
-        
-        System.out.println(purchaseLog);
-        
-        return purchaseMapper.toPurchaseDTO(savedPurchase);
+
+        int attached = ticketRepository.attachReservedToPurchase(ticketIds, user, savedPurchase);
+        if (attached != ticketIds.size()) {
+            throw new ConflictException("Some of the tickets were changed by another request, please retry");
+        }
+
+        return new PurchaseDTO(
+                savedPurchase.getId(),
+                user.getId(),
+                filmId,
+                ticketIds,
+                savedPurchase.getTotalCents(),
+                savedPurchase.getStatus(),
+                savedPurchase.getCreatedAt()
+        );
     }
 
     @Override
@@ -214,13 +189,13 @@ public class PurchaseServiceImpl implements PurchaseService {
             );
         }
 
-        return purchaseMapper.toPurchaseDTO(purchase);
+        return toPurchaseDTOs(List.of(purchase)).getFirst();
     }
 
     @Override
     @Transactional
     public PurchaseDTO cancelPurchaseById(UUID purchaseId, User user) {
-        Purchase purchase = purchaseRepository.findById(purchaseId)
+        Purchase purchase = purchaseRepository.findForPaymentById(purchaseId)
                 .orElseThrow(() -> new NotFoundException(String.format("Purchase with id %s not found", purchaseId)));
         
         if (!isUserAuthorized(purchase, user)) {
@@ -238,21 +213,14 @@ public class PurchaseServiceImpl implements PurchaseService {
                     pendingStatus, paidStatus, statusString)
             );
         }
-
-        for (Ticket ticket : purchase.getTickets()) {
-            int ticketPrice = ticket.getPriceCents();
-            UUID ticketId = ticket.getId();
-            String ticketIdString = ticketId.toString();
-            
-            ticket.setStatus(Ticket.Status.AVAILABLE);
-            ticket.setPurchase(null);
-            ticket.setReservedByUser(null);
-            ticket.setReservedUntil(null);
-            ticketRepository.save(ticket);
-            
-            System.out.println("Ticket " + ticketIdString + " (price: " + ticketPrice + " cents) released");
+        // The seats cannot go back on sale while a charge for them may still succeed
+        if (purchase.getPayments().stream().anyMatch(payment -> payment.getStatus() == Payment.Status.PENDING)) {
+            throw new ConflictException(String.format("Purchase with id %s has a payment in progress", purchaseId));
         }
 
+        int released = ticketService.releaseTicketsForPurchase(purchaseId);
+        log.debug("Released {} tickets of cancelled purchase {}", released, purchaseId);
+
         purchase.setStatus(Purchase.Status.CANCELLED);
         Purchase savedPurchase = purchaseRepository.save(purchase);
         
@@ -262,7 +230,7 @@ public class PurchaseServiceImpl implements PurchaseService {
                 savedPurchase.getClient().getEmail();
         System.out.println(refundLog);
         
-        return purchaseMapper.toPurchaseDTO(savedPurchase);
+        return toPurchaseDTOs(List.of(savedPurchase)).getFirst();
     }
     
     @Transactional
@@ -315,9 +283,7 @@ public class PurchaseServiceImpl implements PurchaseService {
         boolean shouldRefund = !includeRefunded;
         boolean shouldCancel = !includeCancelled;
 
-        List<PurchaseDTO> purchaseDTOs = purchasePage.getContent().stream()
-                .map(purchaseMapper::toPurchaseDTO)
-                .collect(Collectors.toList());
+        List<PurchaseDTO> purchaseDTOs = toPurchaseDTOs(purchasePage.getContent());
 
         PageDTO pageDTO = new PageDTO(
                 page,
@@ -333,6 +299,35 @@ public class PurchaseServiceImpl implements PurchaseService {
         return new PurchasePagedListDTO(purchaseDTOs, pageDTO);
     }
     
+    /**
+     * Maps purchases to DTOs with a single query for their ticket ids and film,
+     * instead of walking the lazy ticket, session and film associations per purchase.
+     */
+    private List<PurchaseDTO> toPurchaseDTOs(List<Purchase> purchases) {
+        if (purchases.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> purchaseIds = purchases.stream().map(Purchase::getId).toList();
+        Map<UUID, List<TicketRepository.PurchaseTicketView>> ticketsByPurchase = ticketRepository.findPurchaseTickets(purchaseIds).stream()
+                .collect(Collectors.groupingBy(TicketRepository.PurchaseTicketView::getPurchaseId));
+
+        return purchases.stream()
+                .map(purchase -> {
+                    List<TicketRepository.PurchaseTicketView> tickets = ticketsByPurchase.getOrDefault(purchase.getId(), List.of());
+                    return new PurchaseDTO(
+                            purchase.getId(),
+                            purchase.getClient().getId(),
+                            tickets.isEmpty() ? null : tickets.getFirst().getFilmId(),
+                            tickets.stream().map(TicketRepository.PurchaseTicketView::getId).toList(),
+                            purchase.getTotalCents(),
+                            purchase.getStatus(),
+                            purchase.getCreatedAt()
+                    );
+                })
+                .toList();
+    }
+
     private boolean isUserAuthorized(Purchase purchase, User user) {
         return purchase.getClient().getId().equals(user.getId()) ||
                 user.getAuthorities().stream()
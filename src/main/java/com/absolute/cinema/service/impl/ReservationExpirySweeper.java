@@ -0,0 +1,119 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.repository.PurchaseRepository;
+import com.absolute.cinema.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Returns RESERVED tickets whose {@code reserved_until} has passed to AVAILABLE.
+ * Each sweep walks the partial index on {@code reserved_until} in short, separately committed batches
+ * so a backlog of abandoned carts never turns into one long-running lock-holding transaction.
+ * Holds attached to an unpaid purchase are released too, unless a payment for it is still in flight;
+ * a pending purchase that loses its seats this way is marked FAILED so it can no longer be paid.
+ */
+@Slf4j
+@Component
+class ReservationExpirySweeper {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_BATCHES_PER_SWEEP = 20;
+
+    private final TicketRepository ticketRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final SeatAvailabilityIndex seatAvailabilityIndex;
+    private final SessionSeatMapWriter sessionSeatMapWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter releasedCounter;
+    private final Timer sweepTimer;
+
+    ReservationExpirySweeper(
+            TicketRepository ticketRepository,
+            PurchaseRepository purchaseRepository,
+            SeatAvailabilityIndex seatAvailabilityIndex,
+            SessionSeatMapWriter sessionSeatMapWriter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.purchaseRepository = purchaseRepository;
+        this.seatAvailabilityIndex = seatAvailabilityIndex;
+        this.sessionSeatMapWriter = sessionSeatMapWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.releasedCounter = Counter.builder("cinema.tickets.reservations.released")
+                .description("Expired ticket reservations returned to AVAILABLE")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("cinema.tickets.reservations.sweep")
+                .description("Duration of one reservation expiry sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.reservation-sweep-ms:30000}")
+    public void sweep() {
+        sweepTimer.record(() -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            int released = 0;
+
+            for (int batch = 0; batch < MAX_BATCHES_PER_SWEEP; batch++) {
+                SweepBatch result = transactionTemplate.execute(status -> releaseBatch(now));
+                if (result == null) {
+                    break;
+                }
+                released += result.released();
+                if (result.found() < BATCH_SIZE) {
+                    break;
+                }
+            }
+
+            if (released > 0) {
+                log.info("Released {} expired ticket reservations", released);
+            }
+        });
+    }
+
+    private SweepBatch releaseBatch(OffsetDateTime now) {
+        List<TicketRepository.ExpiredReservationView> expired =
+                ticketRepository.findExpiredReservations(now, Limit.of(BATCH_SIZE));
+        if (expired.isEmpty()) {
+            return new SweepBatch(0, 0);
+        }
+
+        List<UUID> ids = expired.stream().map(TicketRepository.ExpiredReservationView::getId).toList();
+        List<UUID> releasedPurchaseIds = ticketRepository.releaseExpiredReservations(ids, now);
+        int released = releasedPurchaseIds.size();
+        releasedCounter.increment(released);
+
+        // Only purchases that really lost seats fail; a payment opened since the lookup keeps its holds
+        List<UUID> purchaseIds = releasedPurchaseIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (!purchaseIds.isEmpty()) {
+            purchaseRepository.failPending(purchaseIds);
+        }
+
+        List<UUID> sessionIds = expired.stream()
+                .map(TicketRepository.ExpiredReservationView::getSessionId)
+                .distinct()
+                .toList();
+        sessionIds.forEach(seatAvailabilityIndex::evict);
+        sessionSeatMapWriter.markDirty(sessionIds);
+
+        return new SweepBatch(expired.size(), released);
+    }
+
+    private record SweepBatch(int found, int released) {
+    }
+}
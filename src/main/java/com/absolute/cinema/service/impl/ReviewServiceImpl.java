@@ -4,6 +4,7 @@ import com.absolute.cinema.common.exception.custom.BadRequestException;
 import com.absolute.cinema.common.exception.custom.ForbiddenException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
 import com.absolute.cinema.dto.PageDTO;
+import com.absolute.cinema.dto.review.FilmRatingDTO;
 import com.absolute.cinema.dto.review.ReviewCreateDTO;
 import com.absolute.cinema.dto.review.ReviewDTO;
 import com.absolute.cinema.dto.review.ReviewPagedListDTO;
@@ -13,6 +14,7 @@ import com.absolute.cinema.entity.Review;
 import com.absolute.cinema.entity.Ticket;
 import com.absolute.cinema.entity.User;
 import com.absolute.cinema.mapper.ReviewMapper;
+import com.absolute.cinema.repository.FilmRatingStatsRepository;
 import com.absolute.cinema.repository.FilmRepository;
 import com.absolute.cinema.repository.ReviewRepository;
 import com.absolute.cinema.repository.TicketRepository;
@@ -20,7 +22,6 @@ import com.absolute.cinema.repository.UserRepository;
 import com.absolute.cinema.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,19 +36,14 @@ public class ReviewServiceImpl implements ReviewService {
     private final FilmRepository filmRepository;
     private final UserRepository userRepository;
     private final TicketRepository ticketRepository;
+    private final FilmRatingStatsRepository filmRatingStatsRepository;
+    private final FilmCatalogCache filmCatalogCache;
     private final ReviewMapper reviewMapper;
 
     private int reviewFilterContext;
     private String reviewFilterCriteria;
     private Boolean adminValidationCache;
 
-    private UUID currentUserId() {
-        var email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByEmail(email)
-                .map(User::getId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with email %s not found", email)));
-    }
-
     @Override
     @Transactional(readOnly = true)
     public ReviewPagedListDTO getFilmReviews(UUID filmId, int page, int size) {
@@ -96,6 +92,16 @@ public class ReviewServiceImpl implements ReviewService {
         return review;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public FilmRatingDTO getFilmRating(UUID filmId) {
+        var stats = filmRatingStatsRepository.findById(filmId).orElse(null);
+        if (stats == null && !filmRepository.existsById(filmId))
+            throw new NotFoundException(String.format("Film with id %s not found", filmId));
+
+        return reviewMapper.toRatingDTO(filmId, stats);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ReviewDTO getById(UUID id) {
@@ -105,11 +111,11 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public ReviewDTO create(UUID filmId, ReviewCreateDTO dto) {
+    public ReviewDTO create(UUID filmId, ReviewCreateDTO dto, User user) {
         Film film = filmRepository.findById(filmId)
                 .orElseThrow(() -> new NotFoundException(String.format("Film with id %s not found", filmId)));
 
-        var userId = currentUserId();
+        var userId = user.getId();
         if (reviewRepository.existsByFilm_IdAndClient_Id(filmId, userId))
             throw new BadRequestException("You have already left a review for this film");
 
@@ -119,18 +125,18 @@ public class ReviewServiceImpl implements ReviewService {
             throw new BadRequestException("You can only review films you have watched (purchased ticket required)");
         }
 
-        var user = userRepository.findById(userId).orElseThrow(() -> new NotFoundException(String.format(
-                "User with id %s not found", userId)));
-
         validateReviewRatingByFilmContext(film, dto);
 
         var review = new Review();
         review.setFilm(film);
-        review.setClient(user);
+        review.setClient(userRepository.getReferenceById(userId));
         review.setRating(dto.rating());
         review.setText(dto.text());
 
-        return reviewMapper.toDTO(reviewRepository.save(review));
+        var saved = reviewRepository.save(review);
+        applyRatingDelta(filmId, null, saved.getRating());
+
+        return reviewMapper.toDTO(saved);
     }
 
     private void validateReviewRatingByFilmContext(Film film, ReviewCreateDTO dto) {
@@ -180,30 +186,61 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
-    public ReviewDTO update(UUID id, ReviewUpdateDTO dto) {
-        var userId = currentUserId();
-        var review = reviewRepository.findById(id)
+    public ReviewDTO update(UUID id, ReviewUpdateDTO dto, User user) {
+        var userId = user.getId();
+        var review = reviewRepository.findForUpdateById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Review with id %s not found", id)));
 
         if (!review.getClient().getId().equals(userId))
             throw new ForbiddenException("You can edit only your review");
 
+        Integer previousRating = review.getRating();
         if (dto.rating() != null) review.setRating(dto.rating());
         if (dto.text() != null)   review.setText(dto.text());
 
-        return reviewMapper.toDTO(reviewRepository.save(review));
+        var saved = reviewRepository.save(review);
+        if (!previousRating.equals(saved.getRating())) {
+            applyRatingDelta(saved.getFilm().getId(), previousRating, saved.getRating());
+        }
+
+        return reviewMapper.toDTO(saved);
     }
 
     @Override
-    public void delete(UUID id) {
-        var userId = currentUserId();
-        var review = reviewRepository.findById(id)
+    public void delete(UUID id, User user) {
+        var userId = user.getId();
+        var review = reviewRepository.findForUpdateById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Review with id %s not found", id)));
 
         if (!review.getClient().getId().equals(userId))
             throw new ForbiddenException("You can delete only your review");
 
         reviewRepository.delete(review);
+        applyRatingDelta(review.getFilm().getId(), review.getRating(), null);
+    }
+
+    /**
+     * Moves one review between rating buckets of the film aggregate; a null side means the review
+     * is being added or removed. The upsert is a relative update, so concurrent writers compose.
+     */
+    private void applyRatingDelta(UUID filmId, Integer removedRating, Integer addedRating) {
+        int[] histogram = new int[6];
+        int count = 0;
+        int sum = 0;
+        if (removedRating != null) {
+            histogram[removedRating]--;
+            count--;
+            sum -= removedRating;
+        }
+        if (addedRating != null) {
+            histogram[addedRating]++;
+            count++;
+            sum += addedRating;
+        }
+
+        filmRatingStatsRepository.applyDelta(filmId, count, sum,
+                histogram[1], histogram[2], histogram[3], histogram[4], histogram[5]);
+        filmCatalogCache.invalidate(filmId);
     }
 
     public void validateUserEmail(String email) {
@@ -0,0 +1,137 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.dto.TicketDTO;
+import com.absolute.cinema.entity.Ticket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * In-memory seat map per session: one status byte per ticket plus the immutable ticket attributes,
+ * so that {@code /sessions/{sessionId}/tickets} is served without touching Hibernate once loaded.
+ * State changes are applied after the owning transaction commits; entries expire periodically
+ * and are reloaded from the database to heal any drift.
+ */
+@Component
+class SeatAvailabilityIndex {
+
+    private static final int MAX_SESSIONS = 2_000;
+    private static final Duration RELOAD_AFTER = Duration.ofMinutes(10);
+    private static final Ticket.Status[] STATUSES = Ticket.Status.values();
+
+    private final Cache<UUID, SessionSeats> sessions = Caffeine.newBuilder()
+            .maximumSize(MAX_SESSIONS)
+            .expireAfterWrite(RELOAD_AFTER)
+            .build();
+
+    List<TicketDTO> getTickets(UUID sessionId, Ticket.Status status, Function<UUID, List<TicketDTO>> loader) {
+        SessionSeats seats = sessions.get(sessionId, id -> new SessionSeats(loader.apply(id)));
+        return seats.snapshot(status);
+    }
+
+    void update(Ticket ticket) {
+        update(ticket.getSession().getId(), ticket.getId(), ticket.getStatus(), ticket.getReservedUntil());
+    }
+
+    void update(UUID sessionId, UUID ticketId, Ticket.Status status, OffsetDateTime reservedUntil) {
+        TransactionHooks.afterCommit(() -> sessions.asMap().computeIfPresent(sessionId, (id, seats) -> {
+            seats.set(ticketId, status, reservedUntil);
+            return seats;
+        }));
+    }
+
+    void update(UUID sessionId, Collection<UUID> ticketIds, Ticket.Status status, OffsetDateTime reservedUntil) {
+        List<UUID> ids = List.copyOf(ticketIds);
+        TransactionHooks.afterCommit(() -> sessions.asMap().computeIfPresent(sessionId, (id, seats) -> {
+            ids.forEach(ticketId -> seats.set(ticketId, status, reservedUntil));
+            return seats;
+        }));
+    }
+
+    void evict(UUID sessionId) {
+        TransactionHooks.afterCommit(() -> sessions.invalidate(sessionId));
+    }
+
+    private static final class SessionSeats {
+
+        private final UUID sessionId;
+        private final UUID[] ticketIds;
+        private final UUID[] seatIds;
+        private final UUID[] categoryIds;
+        private final int[] prices;
+        private final byte[] states;
+        private final OffsetDateTime[] reservedUntil;
+        private final Map<UUID, Integer> slots;
+
+        private List<TicketDTO> view;
+
+        private SessionSeats(List<TicketDTO> tickets) {
+            int size = tickets.size();
+            this.sessionId = size == 0 ? null : tickets.getFirst().sessionId();
+            this.ticketIds = new UUID[size];
+            this.seatIds = new UUID[size];
+            this.categoryIds = new UUID[size];
+            this.prices = new int[size];
+            this.states = new byte[size];
+            this.reservedUntil = new OffsetDateTime[size];
+            this.slots = HashMap.newHashMap(size);
+
+            for (int i = 0; i < size; i++) {
+                TicketDTO ticket = tickets.get(i);
+                ticketIds[i] = ticket.id();
+                seatIds[i] = ticket.seatId();
+                categoryIds[i] = ticket.categoryId();
+                prices[i] = ticket.priceCents();
+                states[i] = (byte) ticket.status().ordinal();
+                reservedUntil[i] = ticket.reservedUntil();
+                slots.put(ticket.id(), i);
+            }
+            this.view = List.copyOf(tickets);
+        }
+
+        private synchronized void set(UUID ticketId, Ticket.Status status, OffsetDateTime until) {
+            Integer slot = slots.get(ticketId);
+            if (slot == null) {
+                return;
+            }
+            states[slot] = (byte) status.ordinal();
+            reservedUntil[slot] = until;
+            view = null;
+        }
+
+        private synchronized List<TicketDTO> snapshot(Ticket.Status status) {
+            if (view == null) {
+                List<TicketDTO> tickets = new ArrayList<>(ticketIds.length);
+                for (int i = 0; i < ticketIds.length; i++) {
+                    tickets.add(new TicketDTO(
+                            ticketIds[i],
+                            sessionId,
+                            seatIds[i],
+                            categoryIds[i],
+                            prices[i],
+                            STATUSES[states[i]],
+                            reservedUntil[i]
+                    ));
+                }
+                view = List.copyOf(tickets);
+            }
+
+            if (status == null) {
+                return view;
+            }
+            return view.stream()
+                    .filter(ticket -> ticket.status() == status)
+                    .toList();
+        }
+    }
+}
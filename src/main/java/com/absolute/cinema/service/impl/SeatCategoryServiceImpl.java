@@ -6,6 +6,7 @@ import com.absolute.cinema.dto.*;
 import com.absolute.cinema.entity.SeatCategory;
 import com.absolute.cinema.mapper.SeatCategoryMapper;
 import com.absolute.cinema.repository.SeatCategoryRepository;
+import com.absolute.cinema.repository.TicketRepository;
 import com.absolute.cinema.service.SeatCategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
@@ -19,6 +20,8 @@ public class SeatCategoryServiceImpl implements SeatCategoryService {
 
     private final SeatCategoryRepository seatCategoryRepository;
     private final SeatCategoryMapper seatCategoryMapper;
+    private final TicketRepository ticketRepository;
+    private final SessionSeatMapWriter sessionSeatMapWriter;
 
     @Override
     public SeatCategoryPagedListDTO getSeatCategories(int page, int size) {
@@ -67,10 +70,17 @@ public class SeatCategoryServiceImpl implements SeatCategoryService {
                 () -> new NotFoundException(String.format("Seat category with id: %s not found", id))
         );
 
+        boolean renamed = !seatCategory.getName().equals(editSeatCategoryDTO.name());
         seatCategory.setName(editSeatCategoryDTO.name());
         seatCategory.setPriceCents(editSeatCategoryDTO.priceCents());
 
-        return seatCategoryMapper.toDTO(seatCategoryRepository.save(seatCategory));
+        SeatCategory savedSeatCategory = seatCategoryRepository.save(seatCategory);
+        if (renamed) {
+            // Seat maps embed the category name; ticket prices are fixed at creation and unaffected
+            sessionSeatMapWriter.markDirty(ticketRepository.findSessionIdsByCategoryId(id));
+        }
+
+        return seatCategoryMapper.toDTO(savedSeatCategory);
     }
 
     @Override
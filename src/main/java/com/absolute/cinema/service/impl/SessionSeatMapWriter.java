@@ -0,0 +1,62 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.repository.SessionSeatMapRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the {@code session_seat_map} read model in step with ticket transitions.
+ * Sessions touched by a transaction are collected and their payload is rebuilt once, right before
+ * that transaction commits, so the seat map always commits or rolls back together with the tickets.
+ */
+@Component
+@RequiredArgsConstructor
+class SessionSeatMapWriter {
+
+    private final SessionSeatMapRepository sessionSeatMapRepository;
+
+    void markDirty(UUID sessionId) {
+        markDirty(List.of(sessionId));
+    }
+
+    void markDirty(Collection<UUID> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            sessionSeatMapRepository.refresh(sessionIds);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<UUID> dirty = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+        if (dirty == null) {
+            dirty = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, dirty);
+            registerRefresh(dirty);
+        }
+        dirty.addAll(sessionIds);
+    }
+
+    private void registerRefresh(Set<UUID> dirty) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sessionSeatMapRepository.refresh(dirty);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SessionSeatMapWriter.this);
+            }
+        });
+    }
+}
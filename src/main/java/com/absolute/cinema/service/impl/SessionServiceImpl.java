@@ -1,7 +1,9 @@
 package com.absolute.cinema.service.impl;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
+import com.absolute.cinema.common.exception.custom.ConflictException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.common.pagination.KeysetCursor;
 import com.absolute.cinema.dto.*;
 import com.absolute.cinema.entity.Film;
 import com.absolute.cinema.entity.Hall;
@@ -13,6 +15,8 @@ import com.absolute.cinema.repository.SessionRepository;
 import com.absolute.cinema.service.SessionService;
 import com.absolute.cinema.service.TicketService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -22,11 +26,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +44,7 @@ public class SessionServiceImpl implements SessionService {
     private final HallRepository hallRepository;
     private final TicketService ticketService;
     private final SessionMapper sessionMapper;
+    private final HallTimelineCache hallTimelineCache;
     
     private boolean premiumSessionsEnabled;
     private String currentSessionType;
@@ -45,6 +52,7 @@ public class SessionServiceImpl implements SessionService {
 
     private static final int MIN_BREAK_BETWEEN_SESSIONS_MINUTES = 20;
     private static final int MAX_SESSIONS_PER_DAY = 10;
+    private static final int MAX_PERIODIC_SESSIONS = 1000;
     private static final int MAX_SESSION_DURATION_MINUTES = 480;
     private static final int MIN_SESSION_DURATION_MINUTES = 30;
     private static final int TICKET_PRICE_BASE_CENTS = 1000;
@@ -126,6 +134,40 @@ public class SessionServiceImpl implements SessionService {
         );
     }
 
+    @Override
+    public SessionPagedListDTO getSessionsAfter(String cursor, int size, UUID filmId, Date date) {
+        if (size < 1) throw new BadRequestException("Page size must not be less than one");
+
+        KeysetCursor position = KeysetCursor.parse(cursor, KeysetCursor.ASCENDING_START);
+        OffsetDateTime startAt = OffsetDateTime.ofInstant(position.at(), ZoneOffset.UTC);
+        Limit limit = Limit.of(size + 1);
+
+        List<Session> sessions;
+        if (date != null) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate localDate = date.toInstant().atZone(zone).toLocalDate();
+            OffsetDateTime startOfDay = localDate.atStartOfDay(zone).toOffsetDateTime();
+            OffsetDateTime endOfDay = localDate.plusDays(1).atStartOfDay(zone).toOffsetDateTime().minusNanos(1);
+
+            sessions = filmId != null
+                    ? sessionRepository.findPageByFilmBetweenAfter(filmId, startOfDay, endOfDay, startAt, position.id(), limit)
+                    : sessionRepository.findPageBetweenAfter(startOfDay, endOfDay, startAt, position.id(), limit);
+        } else {
+            sessions = filmId != null
+                    ? sessionRepository.findPageByFilmAfter(filmId, startAt, position.id(), limit)
+                    : sessionRepository.findPageAfter(startAt, position.id(), limit);
+        }
+
+        return new SessionPagedListDTO(
+                sessions.stream()
+                        .limit(size)
+                        .map(sessionMapper::toDTO)
+                        .toList(),
+                new PageDTO(null, size, null, null,
+                        KeysetCursor.next(sessions, size, session -> new KeysetCursor(session.getStartAt().toInstant(), session.getId())))
+        );
+    }
+
     @Override
     public SessionDTO createSession(CreateSessionDTO dto) {
         Film film = filmRepository.findById(dto.filmId()).orElseThrow(
@@ -137,12 +179,41 @@ public class SessionServiceImpl implements SessionService {
         );
 
         if (dto.periodicConfig() != null) {
-            return createPeriodicSessions(dto, film, hall);
+            PeriodicPlan plan = planPeriodicSessions(dto, film, hall);
+            if (!plan.conflicts().isEmpty()) {
+                throw new BadRequestException(plan.conflicts().getFirst().reason());
+            }
+            return sessionMapper.toDTO(saveSessions(hall.getId(), plan.sessions()).getFirst());
         } else {
             return createSingleSession(dto, film, hall);
         }
     }
 
+    @Override
+    public PeriodicSessionsResultDTO createPeriodicSessions(CreateSessionDTO dto) {
+        if (dto.periodicConfig() == null) {
+            throw new BadRequestException("Periodic config cannot be null");
+        }
+
+        Film film = filmRepository.findById(dto.filmId()).orElseThrow(
+                () -> new NotFoundException(String.format("Film with id %s not found", dto.filmId()))
+        );
+
+        Hall hall = hallRepository.findById(dto.hallId()).orElseThrow(
+                () -> new NotFoundException(String.format("Hall with id %s not found", dto.hallId()))
+        );
+
+        PeriodicPlan plan = planPeriodicSessions(dto, film, hall);
+        List<Session> created = plan.sessions().isEmpty() ? List.of() : saveSessions(hall.getId(), plan.sessions());
+
+        return new PeriodicSessionsResultDTO(
+                created.stream()
+                        .map(sessionMapper::toDTO)
+                        .toList(),
+                plan.conflicts()
+        );
+    }
+
     private SessionDTO createSingleSession(CreateSessionDTO dto, Film film, Hall hall) {
         OffsetDateTime startAt = OffsetDateTime.ofInstant(
                 dto.startAt().toInstant(),
@@ -158,13 +229,17 @@ public class SessionServiceImpl implements SessionService {
         session.setSlotStartAt(startAt);
         session.setSlotEndAt(startAt.plusMinutes(film.getDurationMinutes()));
 
-        session = sessionRepository.save(session);
-        ticketService.createTicketsForSession(session);
+        Session saved = guardSlots(hall.getId(), () -> {
+            Session inserted = sessionRepository.save(session);
+            ticketService.createTicketsForSession(inserted);
+            return inserted;
+        });
+        hallTimelineCache.put(saved);
 
-        return sessionMapper.toDTO(session);
+        return sessionMapper.toDTO(saved);
     }
 
-    private SessionDTO createPeriodicSessions(CreateSessionDTO dto, Film film, Hall hall) {
+    private PeriodicPlan planPeriodicSessions(CreateSessionDTO dto, Film film, Hall hall) {
         OffsetDateTime startAt = OffsetDateTime.ofInstant(
                 dto.startAt().toInstant(),
                 ZoneId.systemDefault()
@@ -179,35 +254,80 @@ public class SessionServiceImpl implements SessionService {
             throw new BadRequestException("Start date cannot be after period generation end date");
         }
 
-        List<Session> createdSessions = new ArrayList<>();
-        OffsetDateTime currentDateTime = startAt;
+        List<OffsetDateTime> starts = new ArrayList<>();
+        for (OffsetDateTime current = startAt; !current.isAfter(endAt); current = nextPeriodStart(current, dto.periodicConfig().period())) {
+            if (starts.size() == MAX_PERIODIC_SESSIONS) {
+                throw new BadRequestException(String.format("Cannot create more than %d sessions at once", MAX_PERIODIC_SESSIONS));
+            }
+            starts.add(current);
+        }
 
-        while (!currentDateTime.isAfter(endAt)) {
-            validateSessionTimeSlot(hall.getId(), null, currentDateTime, film.getDurationMinutes());
+        int duration = film.getDurationMinutes();
+        HallSchedule schedule = hallTimelineCache.get(hall.getId());
+        HallSchedule planned = new HallSchedule();
+
+        List<Session> sessions = new ArrayList<>();
+        List<SessionSlotConflictDTO> conflicts = new ArrayList<>();
+
+        for (OffsetDateTime start : starts) {
+            OffsetDateTime end = start.plusMinutes(duration);
+            Optional<HallSchedule.Slot> conflict = schedule.findConflict(start, end, null)
+                    .or(() -> planned.findConflict(start, end, null));
+
+            if (conflict.isPresent()) {
+                conflicts.add(new SessionSlotConflictDTO(
+                        Date.from(start.toInstant()),
+                        conflict.get().sessionId(),
+                        HallSchedule.describeConflict(conflict.get(), start, end)
+                ));
+                continue;
+            }
 
             Session session = new Session();
             session.setFilm(film);
             session.setHall(hall);
-            session.setStartAt(currentDateTime);
-            session.setSlotStartAt(currentDateTime);
-            session.setSlotEndAt(currentDateTime.plusMinutes(film.getDurationMinutes()));
+            session.setStartAt(start);
+            session.setSlotStartAt(start);
+            session.setSlotEndAt(end);
 
-            session = sessionRepository.save(session);
-            ticketService.createTicketsForSession(session);
-            createdSessions.add(session);
-
-            currentDateTime = switch (dto.periodicConfig().period()) {
-                case EVERY_DAY -> currentDateTime.plusDays(1);
-                case EVERY_WEEK -> currentDateTime.plusWeeks(1);
-                default -> throw new BadRequestException("Unsupported period: " + dto.periodicConfig().period());
-            };
+            planned.add(new HallSchedule.Slot(null, start, end));
+            sessions.add(session);
         }
 
-        if (createdSessions.isEmpty()) {
-            throw new BadRequestException("No sessions were created within the specified period");
+        return new PeriodicPlan(sessions, conflicts);
+    }
+
+    private OffsetDateTime nextPeriodStart(OffsetDateTime current, SessionCreatePeriod period) {
+        return switch (period) {
+            case EVERY_DAY -> current.plusDays(1);
+            case EVERY_WEEK -> current.plusWeeks(1);
+        };
+    }
+
+    private List<Session> saveSessions(UUID hallId, List<Session> sessions) {
+        List<Session> saved = guardSlots(hallId, () -> {
+            List<Session> inserted = sessionRepository.saveAll(sessions);
+            ticketService.createTicketsForSessions(inserted);
+            return inserted;
+        });
+        saved.forEach(hallTimelineCache::put);
+        return saved;
+    }
+
+    /**
+     * Runs a write that flushes session slots. The cached timeline can miss sessions created concurrently
+     * or by another instance, so the exclusion constraint on the slots has the final word.
+     */
+    private <T> T guardSlots(UUID hallId, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            hallTimelineCache.evict(hallId);
+            throw new ConflictException("Session slot was taken by another session in the meantime, please retry");
         }
+    }
 
-        return sessionMapper.toDTO(createdSessions.getFirst());
+    private record PeriodicPlan(List<Session> sessions, List<SessionSlotConflictDTO> conflicts) {
     }
 
     @Override
@@ -239,57 +359,38 @@ public class SessionServiceImpl implements SessionService {
 
         validateSessionTimeSlot(hall.getId(), id, startAt, film.getDurationMinutes());
 
+        UUID previousHallId = session.getHall().getId();
         session.setFilm(film);
         session.setHall(hall);
         session.setStartAt(startAt);
+        session.setSlotStartAt(startAt);
+        session.setSlotEndAt(startAt.plusMinutes(film.getDurationMinutes()));
 
-        session = sessionRepository.save(session);
-        return sessionMapper.toDTO(session);
+        Session saved = guardSlots(hall.getId(), () -> sessionRepository.saveAndFlush(session));
+        hallTimelineCache.remove(previousHallId, id);
+        hallTimelineCache.put(saved);
+        return sessionMapper.toDTO(saved);
     }
 
     @Override
     public void deleteSession(UUID id) {
-        if (!sessionRepository.existsById(id)) {
-            throw new NotFoundException(String.format("Session with id %s not found", id));
-        }
+        Session session = sessionRepository.findById(id).orElseThrow(
+                () -> new NotFoundException(String.format("Session with id %s not found", id))
+        );
 
         ticketService.deleteTicketsBySessionId(id);
 
-        sessionRepository.deleteById(id);
+        sessionRepository.delete(session);
+        hallTimelineCache.remove(session.getHall().getId(), id);
     }
 
     private void validateSessionTimeSlot(UUID hallId, UUID sessionId, OffsetDateTime startTime, int durationMinutes) {
         OffsetDateTime endTime = startTime.plusMinutes(durationMinutes);
 
-        List<Session> conflictingSessions = sessionRepository.findByHallIdAndStartAtBetween(
-                hallId,
-                startTime.minusMinutes(durationMinutes + 20),
-                endTime.plusMinutes(20)
-        );
-
-        if (sessionId != null) {
-            conflictingSessions = conflictingSessions.stream()
-                    .filter(session -> !session.getId().equals(sessionId))
-                    .toList();
-        }
-
-        for (Session other : conflictingSessions) {
-            OffsetDateTime otherStart = other.getStartAt();
-            OffsetDateTime otherEnd = otherStart.plusMinutes(other.getFilm().getDurationMinutes());
-
-            if (startTime.isAfter(otherEnd) &&
-                    ChronoUnit.MINUTES.between(otherEnd, startTime) < 20) {
-                throw new BadRequestException("Session must start at least 20 minutes after the previous session ends");
-            }
-
-            if (endTime.isBefore(otherStart) &&
-                    ChronoUnit.MINUTES.between(endTime, otherStart) < 20) {
-                throw new BadRequestException("Session must end at least 20 minutes before the next session starts");
-            }
+        Optional<HallSchedule.Slot> conflict = hallTimelineCache.get(hallId).findConflict(startTime, endTime, sessionId);
 
-            if ((startTime.isBefore(otherEnd) && endTime.isAfter(otherStart))) {
-                throw new BadRequestException("Session overlaps with an existing session");
-            }
+        if (conflict.isPresent()) {
+            throw new BadRequestException(HallSchedule.describeConflict(conflict.get(), startTime, endTime));
         }
     }
     
@@ -0,0 +1,68 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.service.PaymentGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a card processor. Latency follows a log-normal distribution described by its
+ * median and 99th percentile; a share of calls is declined, fails with an error, or hangs long
+ * enough to trip client timeouts. All knobs live under {@code payments.gateway.simulator.*}.
+ */
+@Component
+class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final double Z_99 = 2.326;
+
+    private final double latencyMedianMs;
+    private final double latencySigma;
+    private final double declineRate;
+    private final double errorRate;
+    private final double hangRate;
+    private final long hangMs;
+
+    SimulatedPaymentGateway(
+            @Value("${payments.gateway.simulator.latency-median-ms:150}") long latencyMedianMs,
+            @Value("${payments.gateway.simulator.latency-p99-ms:800}") long latencyP99Ms,
+            @Value("${payments.gateway.simulator.decline-rate:0.1}") double declineRate,
+            @Value("${payments.gateway.simulator.error-rate:0.02}") double errorRate,
+            @Value("${payments.gateway.simulator.hang-rate:0.01}") double hangRate,
+            @Value("${payments.gateway.simulator.hang-ms:30000}") long hangMs
+    ) {
+        this.latencyMedianMs = Math.max(1, latencyMedianMs);
+        this.latencySigma = Math.log(Math.max(latencyP99Ms, this.latencyMedianMs) / this.latencyMedianMs) / Z_99;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+        this.hangMs = hangMs;
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+
+        if (roll < hangRate) {
+            pause(hangMs);
+            throw new IllegalStateException("Payment gateway did not respond");
+        }
+
+        pause(Math.round(latencyMedianMs * Math.exp(latencySigma * random.nextGaussian())));
+
+        if (roll < hangRate + errorRate) {
+            throw new IllegalStateException("Payment gateway error for payment " + request.paymentId());
+        }
+        return roll < hangRate + errorRate + declineRate ? ChargeResult.DECLINED : ChargeResult.APPROVED;
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payment gateway call interrupted", e);
+        }
+    }
+}
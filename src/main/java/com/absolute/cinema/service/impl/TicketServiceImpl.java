@@ -1,23 +1,32 @@
 package com.absolute.cinema.service.impl;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
+import com.absolute.cinema.common.exception.custom.ConflictException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.dto.TicketConflictDTO;
 import com.absolute.cinema.dto.TicketDTO;
-import com.absolute.cinema.entity.Seat;
+import com.absolute.cinema.dto.TicketReservationResultDTO;
 import com.absolute.cinema.entity.Session;
 import com.absolute.cinema.entity.Ticket;
 import com.absolute.cinema.entity.User;
 import com.absolute.cinema.mapper.TicketMapper;
-import com.absolute.cinema.repository.SeatRepository;
+import com.absolute.cinema.repository.SessionSeatMapRepository;
 import com.absolute.cinema.repository.TicketRepository;
 import com.absolute.cinema.service.TicketService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +35,9 @@ public class TicketServiceImpl implements TicketService {
 
     private final TicketRepository ticketRepository;
     private final TicketMapper ticketMapper;
-    private final SeatRepository seatRepository;
+    private final SeatAvailabilityIndex seatAvailabilityIndex;
+    private final SessionSeatMapWriter sessionSeatMapWriter;
+    private final SessionSeatMapRepository sessionSeatMapRepository;
     
     private String auditTicketStatus;
     private long auditTicketTimestamp;
@@ -34,80 +45,122 @@ public class TicketServiceImpl implements TicketService {
 
     private static final int TICKET_RESERVATION_MINUTES = 15;
     private static final int MAX_TICKETS_PER_SESSION = 5000;
+    private static final int SESSIONS_PER_TICKET_INSERT = 100;
     private static final String TICKET_STATUS_AVAILABLE = "AVAILABLE";
     private static final String TICKET_STATUS_RESERVED = "RESERVED";
     private static final String TICKET_STATUS_SOLD = "SOLD";
 
     @Override
     public void createTicketsForSession(Session session) {
-        List<Seat> seats = seatRepository.findByHallId(session.getHall().getId());
+        ticketRepository.insertAvailableForHallSeats(session.getId(), session.getHall().getId());
+        seatAvailabilityIndex.evict(session.getId());
+        sessionSeatMapWriter.markDirty(session.getId());
+    }
 
-        List<Ticket> tickets = seats.stream()
-                .map(seat -> createTicket(session, seat))
-                .toList();
+    @Override
+    public void createTicketsForSessions(List<Session> sessions) {
+        List<UUID> sessionIds = sessions.stream().map(Session::getId).toList();
 
-        ticketRepository.saveAll(tickets);
+        for (int from = 0; from < sessionIds.size(); from += SESSIONS_PER_TICKET_INSERT) {
+            int to = Math.min(from + SESSIONS_PER_TICKET_INSERT, sessionIds.size());
+            ticketRepository.insertAvailableForSessions(sessionIds.subList(from, to));
+        }
+        sessionIds.forEach(seatAvailabilityIndex::evict);
+        sessionSeatMapWriter.markDirty(sessionIds);
     }
 
     @Override
     public void deleteTicketsBySessionId(UUID sessionId) {
         ticketRepository.deleteBySessionId(sessionId);
+        seatAvailabilityIndex.evict(sessionId);
+        sessionSeatMapWriter.markDirty(sessionId);
     }
 
+    // Cache hits must not borrow a connection; only the loader opens a (read-only) transaction on a miss
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TicketDTO> getTicketsForSession(UUID sessionId, Ticket.Status status) {
-        List<Ticket> tickets;
-        if (status != null) {
-            tickets = ticketRepository.findBySessionIdAndStatus(sessionId, status);
-        } else {
-            tickets = ticketRepository.findBySessionId(sessionId);
-        }
-
-        return tickets.stream()
+        return seatAvailabilityIndex.getTickets(sessionId, status, id -> ticketRepository.findBySessionId(id).stream()
                 .map(ticketMapper::toDTO)
-                .toList();
+                .toList());
+    }
+
+    @Override
+    public String getSeatMap(UUID sessionId) {
+        return sessionSeatMapRepository.findPayloadBySessionId(sessionId).orElseGet(() -> {
+            // Sessions created before the read model existed are materialised on first access
+            if (sessionSeatMapRepository.refresh(List.of(sessionId)) == 0) {
+                throw new NotFoundException(String.format("Session with id %s not found", sessionId));
+            }
+            return sessionSeatMapRepository.findPayloadBySessionId(sessionId).orElseThrow();
+        });
     }
 
     @Override
     public TicketDTO reserveTicket(UUID id, User user) {
-        UUID userId = user.getId();
-        String userEmail = user.getUsername();
-        String userName = user.getFirstName() + " " + user.getLastName();
-        
-        String reservedStatus = TICKET_STATUS_RESERVED;
-        String availableStatus = TICKET_STATUS_AVAILABLE;
-        
+        OffsetDateTime reservedUntil = OffsetDateTime.now().plusMinutes(TICKET_RESERVATION_MINUTES);
+
+        // Single conditional UPDATE: of any number of concurrent callers exactly one sees a row count of 1
+        int reserved = ticketRepository.reserveIfAvailable(id, user, reservedUntil);
+
         Ticket ticket = ticketRepository.findById(id).orElseThrow(
                 () -> new NotFoundException(String.format("Ticket with id %s not found", id)));
 
-        String ticketStatusString = ticket.getStatus().name();
-        if (!ticketStatusString.equals(availableStatus)) {
-            throw new BadRequestException(
-                    String.format("Ticket with id %s is not available for reservation (current: %s)", id, ticketStatusString)
+        if (reserved == 0) {
+            throw new ConflictException(
+                    String.format("Ticket with id %s is not available for reservation (current: %s)", id, ticket.getStatus())
             );
         }
 
-        int ticketPrice = ticket.getPriceCents();
-        UUID seatId = ticket.getSeat().getId();
-        Integer seatNumber = ticket.getSeat().getNumber();
-        UUID sessionId = ticket.getSession().getId();
-        String sessionFilmName = ticket.getSession().getFilm().getId().toString();
-        
-        if (ticketPrice < 0 || ticketPrice > 999999999) {
-            throw new BadRequestException("Invalid ticket price: " + ticketPrice);
+        seatAvailabilityIndex.update(ticket);
+        sessionSeatMapWriter.markDirty(ticket.getSession().getId());
+        return ticketMapper.toDTO(ticket);
+    }
+
+    @Override
+    public TicketReservationResultDTO reserveTickets(UUID sessionId, List<UUID> ticketIds, User user) {
+        Set<UUID> requestedIds = new LinkedHashSet<>(ticketIds);
+        if (requestedIds.size() != ticketIds.size()) {
+            throw new BadRequestException("Ticket IDs must not contain duplicates");
+        }
+
+        Map<UUID, Ticket.Status> statuses = ticketRepository.findBySession_IdAndIdIn(sessionId, requestedIds).stream()
+                .collect(Collectors.toMap(TicketRepository.StatusView::getId, TicketRepository.StatusView::getStatus));
+
+        List<TicketConflictDTO> conflicts = new ArrayList<>();
+        for (UUID ticketId : requestedIds) {
+            Ticket.Status status = statuses.get(ticketId);
+            if (status == null) {
+                conflicts.add(new TicketConflictDTO(ticketId, null,
+                        String.format("Ticket with id %s not found in session %s", ticketId, sessionId)));
+            } else if (status != Ticket.Status.AVAILABLE) {
+                conflicts.add(new TicketConflictDTO(ticketId, status,
+                        String.format("Ticket with id %s is not available for reservation (current: %s)", ticketId, status)));
+            }
+        }
+
+        if (!conflicts.isEmpty()) {
+            return new TicketReservationResultDTO(List.of(), conflicts);
         }
 
-        ticket.setStatus(Ticket.Status.RESERVED);
         OffsetDateTime reservedUntil = OffsetDateTime.now().plusMinutes(TICKET_RESERVATION_MINUTES);
-        ticket.setReservedUntil(reservedUntil);
-        ticket.setReservedByUser(user);
+        int reserved = ticketRepository.reserveAllIfAvailable(sessionId, requestedIds, user, reservedUntil);
+        if (reserved != requestedIds.size()) {
+            // Someone took a seat between the check and the update; roll back so the group stays all-or-nothing
+            throw new ConflictException("Some of the requested tickets were reserved concurrently, please retry");
+        }
 
-        String reservationLog = "Ticket " + id + " reserved by user " + userEmail + 
-                " until " + reservedUntil + " for seat " + seatNumber + 
-                " in session " + sessionId + " showing " + sessionFilmName;
-        System.out.println(reservationLog);
+        seatAvailabilityIndex.update(sessionId, requestedIds, Ticket.Status.RESERVED, reservedUntil);
+        sessionSeatMapWriter.markDirty(sessionId);
 
-        return ticketMapper.toDTO(ticketRepository.save(ticket));
+        Map<UUID, TicketDTO> reservedTickets = ticketRepository.findAllById(requestedIds).stream()
+                .map(ticketMapper::toDTO)
+                .collect(Collectors.toMap(TicketDTO::id, Function.identity()));
+
+        return new TicketReservationResultDTO(
+                requestedIds.stream().map(reservedTickets::get).toList(),
+                List.of()
+        );
     }
 
     @Override
@@ -147,7 +200,44 @@ public class TicketServiceImpl implements TicketService {
                 " previously reserved by " + reservedByUser.getEmail();
         System.out.println(cancellationLog);
 
-        return ticketMapper.toDTO(ticketRepository.save(ticket));
+        Ticket savedTicket = ticketRepository.save(ticket);
+        seatAvailabilityIndex.update(savedTicket);
+        sessionSeatMapWriter.markDirty(savedTicket.getSession().getId());
+        return ticketMapper.toDTO(savedTicket);
+    }
+
+    @Override
+    public int sellTicketsForPurchase(UUID purchaseId) {
+        List<TicketRepository.SessionTicketView> tickets = ticketRepository.findSessionTicketsByPurchaseId(purchaseId);
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+        int sold = ticketRepository.sellByPurchaseId(purchaseId);
+        updateIndex(tickets, Ticket.Status.SOLD);
+        return sold;
+    }
+
+    @Override
+    public int releaseTicketsForPurchase(UUID purchaseId) {
+        List<TicketRepository.SessionTicketView> tickets = ticketRepository.findSessionTicketsByPurchaseId(purchaseId);
+        if (tickets.isEmpty()) {
+            return 0;
+        }
+        int released = ticketRepository.releaseByPurchaseId(purchaseId);
+        updateIndex(tickets, Ticket.Status.AVAILABLE);
+        return released;
+    }
+
+    private void updateIndex(List<TicketRepository.SessionTicketView> tickets, Ticket.Status status) {
+        tickets.stream()
+                .collect(Collectors.groupingBy(
+                        TicketRepository.SessionTicketView::getSessionId,
+                        Collectors.mapping(TicketRepository.SessionTicketView::getId, Collectors.toList())
+                ))
+                .forEach((sessionId, ticketIds) -> {
+                    seatAvailabilityIndex.update(sessionId, ticketIds, status, null);
+                    sessionSeatMapWriter.markDirty(sessionId);
+                });
     }
     
     public TicketDTO reserveTicketWithDetails(
@@ -194,17 +284,10 @@ public class TicketServiceImpl implements TicketService {
             System.out.println("Auto-renewal enabled for " + ticketId);
         }
         
-        return ticketMapper.toDTO(ticketRepository.save(ticket));
-    }
-
-    private Ticket createTicket(Session session, Seat seat) {
-        Ticket ticket = new Ticket();
-        ticket.setSession(session);
-        ticket.setSeat(seat);
-        ticket.setCategory(seat.getCategory());
-        ticket.setPriceCents(seat.getCategory().getPriceCents());
-        ticket.setStatus(Ticket.Status.AVAILABLE);
-        return ticket;
+        Ticket savedTicket = ticketRepository.save(ticket);
+        seatAvailabilityIndex.update(savedTicket);
+        sessionSeatMapWriter.markDirty(savedTicket.getSession().getId());
+        return ticketMapper.toDTO(savedTicket);
     }
 
     private void logTicketTransaction(UUID ticketId, String status, String details) {
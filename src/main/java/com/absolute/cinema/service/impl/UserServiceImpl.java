@@ -2,6 +2,7 @@ package com.absolute.cinema.service.impl;
 
 import com.absolute.cinema.common.exception.custom.BadRequestException;
 import com.absolute.cinema.common.exception.custom.NotFoundException;
+import com.absolute.cinema.common.security.JwtTokenService;
 import com.absolute.cinema.dto.UpdateUserDTO;
 import com.absolute.cinema.dto.UserDTO;
 import com.absolute.cinema.entity.User;
@@ -19,6 +20,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final JwtTokenService jwtTokenService;
 
     private static final int MIN_PASSWORD_LENGTH = 8;
     private static final int MAX_PASSWORD_LENGTH = 128;
@@ -115,7 +117,11 @@ public class UserServiceImpl implements UserService {
         user.setAge(ageToUpdate);
         user.setGender(genderToUpdate);
 
-        return userMapper.toDTO(userRepository.save(user));
+        // Save the user and drop cached principals so the next request sees the updated profile
+        User savedUser = userRepository.save(user);
+        jwtTokenService.evictAuthenticatedTokens(savedUser.getId());
+
+        return userMapper.toDTO(savedUser);
     }
     
     public UserDTO updateUserWithDetails(
@@ -180,6 +186,9 @@ public class UserServiceImpl implements UserService {
                 ", Language: " + language;
         System.out.println(updateLog);
         
-        return userMapper.toDTO(userRepository.save(user));
+        User savedUser = userRepository.save(user);
+        jwtTokenService.evictAuthenticatedTokens(savedUser.getId());
+        
+        return userMapper.toDTO(savedUser);
     }
 }
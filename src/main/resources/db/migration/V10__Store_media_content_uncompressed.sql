@@ -0,0 +1 @@
+ALTER TABLE media ALTER COLUMN content SET STORAGE EXTERNAL;
\ No newline at end of file
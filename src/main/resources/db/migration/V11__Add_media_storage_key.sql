@@ -0,0 +1,9 @@
+ALTER TABLE media ADD COLUMN storage_key VARCHAR(64);
+ALTER TABLE media ADD COLUMN content_length BIGINT;
+
+UPDATE media SET content_length = octet_length(content);
+
+ALTER TABLE media ALTER COLUMN content_length SET NOT NULL;
+ALTER TABLE media ALTER COLUMN content DROP NOT NULL;
+
+CREATE INDEX idx_media_storage_key ON media (storage_key);
\ No newline at end of file
@@ -0,0 +1,12 @@
+CREATE TABLE media_variants (
+    id UUID PRIMARY KEY,
+    media_id UUID NOT NULL REFERENCES media(id) ON DELETE CASCADE,
+    width INTEGER NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    content_length BIGINT NOT NULL,
+    storage_key VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_media_variant UNIQUE (media_id, width)
+);
+
+CREATE INDEX idx_media_variants_storage_key ON media_variants (storage_key);
\ No newline at end of file
@@ -0,0 +1,28 @@
+CREATE TABLE session_seat_map (
+    session_id UUID PRIMARY KEY,
+    payload JSONB NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_seat_map_session FOREIGN KEY (session_id) REFERENCES sessions(id) ON DELETE CASCADE
+);
+
+INSERT INTO session_seat_map (session_id, payload, updated_at)
+SELECT ss.id,
+       jsonb_build_object('sessionId', ss.id, 'seats', COALESCE((
+           SELECT jsonb_agg(jsonb_build_object(
+                      'ticketId', t.id,
+                      'seatId', s.id,
+                      'row', s.row_number,
+                      'number', s.seat_number,
+                      'categoryId', c.id,
+                      'categoryName', c.name,
+                      'priceCents', t.price_cents,
+                      'status', t.status,
+                      'reservedUntil', t.reserved_until
+                  ) ORDER BY s.row_number, s.seat_number)
+             FROM tickets t
+             JOIN seats s ON s.id = t.seat_id
+             JOIN seat_categories c ON c.id = t.category_id
+            WHERE t.session_id = ss.id
+       ), '[]'::jsonb)),
+       CURRENT_TIMESTAMP
+FROM sessions ss;
\ No newline at end of file
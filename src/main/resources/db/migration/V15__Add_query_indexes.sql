@@ -0,0 +1,11 @@
+CREATE INDEX idx_tickets_session_status ON tickets (session_id, status);
+CREATE INDEX idx_tickets_purchase_id ON tickets (purchase_id) WHERE purchase_id IS NOT NULL;
+CREATE INDEX idx_tickets_reserved_by_user_id ON tickets (reserved_by_user_id) WHERE reserved_by_user_id IS NOT NULL;
+CREATE INDEX idx_tickets_category_session ON tickets (category_id, session_id);
+CREATE INDEX idx_sessions_start_at ON sessions (start_at, id);
+CREATE INDEX idx_sessions_film_start_at ON sessions (film_id, start_at, id);
+CREATE INDEX idx_purchases_client_created_at ON purchases (client_id, created_at DESC, id DESC);
+CREATE INDEX idx_films_created_at ON films (created_at DESC, id DESC);
+CREATE INDEX idx_halls_created_at ON halls (created_at DESC, id DESC);
+CREATE INDEX idx_reviews_client_id ON reviews (client_id);
+CREATE INDEX idx_seats_category_id ON seats (category_id);
\ No newline at end of file
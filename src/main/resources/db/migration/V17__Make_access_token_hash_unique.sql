@@ -0,0 +1,9 @@
+UPDATE tokens t SET is_logged_out = TRUE
+WHERE EXISTS (SELECT 1 FROM tokens d WHERE d.access_token_hash = t.access_token_hash AND d.is_logged_out);
+
+DELETE FROM tokens t
+USING tokens d
+WHERE t.access_token_hash = d.access_token_hash AND t.id > d.id;
+
+DROP INDEX idx_tokens_access_token_hash;
+CREATE UNIQUE INDEX idx_tokens_access_token_hash ON tokens (access_token_hash);
\ No newline at end of file
@@ -0,0 +1,12 @@
+ALTER TABLE payments ADD COLUMN amount_cents INTEGER;
+ALTER TABLE payments ADD COLUMN currency VARCHAR(3) NOT NULL DEFAULT 'EUR';
+ALTER TABLE payments ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN max_attempts INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE payments ADD COLUMN next_attempt_at TIMESTAMP NULL;
+
+UPDATE payments p SET amount_cents = pu.total_cents FROM purchases pu WHERE pu.id = p.purchase_id;
+UPDATE payments SET next_attempt_at = CURRENT_TIMESTAMP WHERE status = 'PENDING';
+
+ALTER TABLE payments ALTER COLUMN amount_cents SET NOT NULL;
+
+CREATE INDEX idx_payments_next_attempt_at_pending ON payments (next_attempt_at) WHERE status = 'PENDING';
\ No newline at end of file
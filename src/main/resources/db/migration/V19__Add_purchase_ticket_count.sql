@@ -0,0 +1,3 @@
+ALTER TABLE purchases ADD COLUMN ticket_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE purchases p SET ticket_count = (SELECT COUNT(*) FROM tickets t WHERE t.purchase_id = p.id);
\ No newline at end of file
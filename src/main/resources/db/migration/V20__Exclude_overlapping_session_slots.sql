@@ -0,0 +1,4 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE sessions ADD CONSTRAINT ex_session_hall_slot
+    EXCLUDE USING gist (hall_id WITH =, tsrange(slot_start_at, slot_end_at + INTERVAL '20 minutes') WITH &&);
\ No newline at end of file
@@ -0,0 +1,3 @@
+ALTER TABLE email_outbox ALTER COLUMN next_attempt_at TYPE TIMESTAMPTZ;
+ALTER TABLE email_outbox ALTER COLUMN created_at TYPE TIMESTAMPTZ;
+ALTER TABLE email_outbox ALTER COLUMN sent_at TYPE TIMESTAMPTZ;
\ No newline at end of file
@@ -0,0 +1 @@
+CREATE INDEX idx_tickets_reserved_until_reserved ON tickets (reserved_until) WHERE status = 'RESERVED';
\ No newline at end of file
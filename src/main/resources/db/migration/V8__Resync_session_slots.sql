@@ -0,0 +1,8 @@
+UPDATE sessions s
+SET slot_start_at = s.start_at,
+    slot_end_at = s.start_at + make_interval(mins => f.duration_minutes)
+FROM films f
+WHERE f.id = s.film_id
+  AND (s.slot_start_at <> s.start_at OR s.slot_end_at <> s.start_at + make_interval(mins => f.duration_minutes));
+
+CREATE INDEX idx_sessions_hall_slot ON sessions (hall_id, slot_start_at, slot_end_at);
\ No newline at end of file
@@ -0,0 +1,10 @@
+ALTER TABLE tokens ADD COLUMN access_token_hash BYTEA;
+
+UPDATE tokens SET access_token_hash = sha256(convert_to(access_token, 'UTF8'));
+
+ALTER TABLE tokens ALTER COLUMN access_token_hash SET NOT NULL;
+
+DROP INDEX idx_tokens_access_token;
+ALTER TABLE tokens DROP COLUMN access_token;
+
+CREATE INDEX idx_tokens_access_token_hash ON tokens (access_token_hash);
\ No newline at end of file
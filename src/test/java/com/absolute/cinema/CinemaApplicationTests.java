@@ -1,10 +1,8 @@
 package com.absolute.cinema;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
-class CinemaApplicationTests {
+class CinemaApplicationTests extends PostgresIntegrationTest {
 
 	@Test
 	void contextLoads() {
@@ -0,0 +1,160 @@
+package com.absolute.cinema;
+
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts minimal rows straight through JDBC so integration tests can arrange state without
+ * going through the services under test. Every call creates fresh rows with random ids.
+ */
+public class DatabaseFixtures {
+
+    private static final UUID USER_ROLE_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private final JdbcTemplate jdbc;
+    private final UserRepository userRepository;
+
+    public DatabaseFixtures(JdbcTemplate jdbc, UserRepository userRepository) {
+        this.jdbc = jdbc;
+        this.userRepository = userRepository;
+    }
+
+    public JdbcTemplate jdbc() {
+        return jdbc;
+    }
+
+    public User user() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("insert into users (id, email, password) values (?, ?, 'x')", id, id + "@test.local");
+        jdbc.update("insert into users_roles (user_id, role_id) values (?, ?)", id, USER_ROLE_ID);
+        return userRepository.findById(id).orElseThrow();
+    }
+
+    public UUID film() {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                insert into films (id, title, description, duration_minutes, age_rating)
+                values (?, 'Film', 'Description', 120, 'TWELVE_PLUS')
+                """, id);
+        return id;
+    }
+
+    public UUID hall(int seats) {
+        UUID hallId = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+        jdbc.update("insert into halls (id, name, number) values (?, 'Hall', 1)", hallId);
+        jdbc.update("insert into seat_categories (id, name, price_cents) values (?, 'Standard', 500)", categoryId);
+        for (int seat = 1; seat <= seats; seat++) {
+            jdbc.update("insert into seats (id, hall_id, row_number, seat_number, category_id) values (?, ?, 1, ?, ?)",
+                    UUID.randomUUID(), hallId, seat, categoryId);
+        }
+        return hallId;
+    }
+
+    /**
+     * Creates a session with one AVAILABLE ticket per seat of the hall.
+     */
+    public UUID session(UUID filmId, UUID hallId, LocalDateTime startAt) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                insert into sessions (id, film_id, hall_id, start_at, slot_start_at, slot_end_at)
+                values (?, ?, ?, ?, ?, ?)
+                """, id, filmId, hallId, startAt, startAt, startAt.plusMinutes(130));
+        jdbc.update("""
+                insert into tickets (id, session_id, seat_id, category_id, price_cents, status)
+                select gen_random_uuid(), ?, s.id, s.category_id, c.price_cents, 'AVAILABLE'
+                  from seats s
+                  join seat_categories c on c.id = s.category_id
+                 where s.hall_id = ?
+                """, id, hallId);
+        return id;
+    }
+
+    public UUID session(int seats) {
+        return session(film(), hall(seats), LocalDateTime.now().plusDays(1));
+    }
+
+    public UUID purchase(User client, String status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("insert into purchases (id, client_id, total_cents, status) values (?, ?, 500, ?)",
+                id, client.getId(), status);
+        return id;
+    }
+
+    public UUID payment(UUID purchaseId, String status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("insert into payments (id, purchase_id, status, amount_cents) values (?, ?, ?, 500)", id, purchaseId, status);
+        return id;
+    }
+
+    /**
+     * Makes a pending payment look like one left behind with the given attempt state, e.g. by a stopped instance.
+     */
+    public void paymentAttempts(UUID paymentId, int attempts, int maxAttempts, LocalDateTime nextAttemptAt) {
+        jdbc.update("update payments set attempts = ?, max_attempts = ?, next_attempt_at = ? where id = ?",
+                attempts, maxAttempts, nextAttemptAt, paymentId);
+    }
+
+    public String paymentStatus(UUID paymentId) {
+        return jdbc.queryForObject("select status from payments where id = ?", String.class, paymentId);
+    }
+
+    /**
+     * Puts a ticket on hold for the user until the given time, optionally attached to a purchase.
+     */
+    public void reserve(UUID ticketId, User user, UUID purchaseId, LocalDateTime reservedUntil) {
+        countTicket(ticketId, purchaseId);
+        jdbc.update("""
+                update tickets
+                   set status = 'RESERVED', reserved_by_user_id = ?, purchase_id = ?, reserved_until = ?
+                 where id = ?
+                """, user.getId(), purchaseId, reservedUntil, ticketId);
+    }
+
+    /**
+     * Marks a ticket as sold to the client of the purchase.
+     */
+    public void sell(UUID ticketId, UUID purchaseId) {
+        countTicket(ticketId, purchaseId);
+        jdbc.update("update tickets set status = 'SOLD', purchase_id = ? where id = ?", purchaseId, ticketId);
+    }
+
+    /**
+     * Puts a held ticket back on sale and detaches it from its purchase, as an expired hold does.
+     */
+    public void expire(UUID ticketId) {
+        jdbc.update("""
+                update tickets
+                   set status = 'AVAILABLE', reserved_by_user_id = null, purchase_id = null, reserved_until = null
+                 where id = ?
+                """, ticketId);
+    }
+
+    // Keeps purchases.ticket_count in line with the tickets attached to the purchase, as checkout does
+    private void countTicket(UUID ticketId, UUID purchaseId) {
+        if (purchaseId != null) {
+            jdbc.update("""
+                    update purchases set ticket_count = ticket_count + 1
+                     where id = ?
+                       and not exists (select 1 from tickets where id = ? and purchase_id = ?)
+                    """, purchaseId, ticketId, purchaseId);
+        }
+    }
+
+    public String purchaseStatus(UUID purchaseId) {
+        return jdbc.queryForObject("select status from purchases where id = ?", String.class, purchaseId);
+    }
+
+    public List<UUID> tickets(UUID sessionId) {
+        return jdbc.queryForList("select id from tickets where session_id = ? order by id", UUID.class, sessionId);
+    }
+
+    public String ticketStatus(UUID ticketId) {
+        return jdbc.queryForObject("select status from tickets where id = ?", String.class, ticketId);
+    }
+}
@@ -0,0 +1,63 @@
+package com.absolute.cinema;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Boots the application against a throwaway PostgreSQL instance migrated by Flyway, so repository
+ * queries and migrations are exercised against the real dialect. One server is shared per test JVM.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(DatabaseFixtures.class)
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    protected DatabaseFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    /**
+     * Counts the JDBC statements Hibernate prepares while the action runs. Fixtures go through
+     * {@code JdbcTemplate} and are not counted.
+     */
+    protected long countStatements(Runnable action) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    protected Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.absolute.cinema.common.pagination;
+
+import com.absolute.cinema.common.exception.custom.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final Instant AT = Instant.parse("2030-01-01T12:00:00.123456Z");
+
+    @Test
+    void encodedCursorParsesBackToSamePosition() {
+        KeysetCursor cursor = new KeysetCursor(AT, UUID.randomUUID());
+
+        assertThat(KeysetCursor.parse(cursor.encode(), KeysetCursor.ASCENDING_START)).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new KeysetCursor(AT, new UUID(-1L, -1L)).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "   "})
+    void blankCursorStartsFromGivenStart(String cursor) {
+        assertThat(KeysetCursor.parse(cursor, KeysetCursor.DESCENDING_START)).isSameAs(KeysetCursor.DESCENDING_START);
+        assertThat(KeysetCursor.parse(cursor, KeysetCursor.ASCENDING_START)).isSameAs(KeysetCursor.ASCENDING_START);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "bm8tc2VwYXJhdG9y", "bm90LWEtZGF0ZXxub3QtYS11dWlk"})
+    void garbageCursorIsBadRequest(String cursor) {
+        assertThatThrownBy(() -> KeysetCursor.parse(cursor, KeysetCursor.ASCENDING_START))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void cursorWithValidDateButBrokenIdIsBadRequest() {
+        String raw = AT + "|not-a-uuid";
+        String cursor = Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.parse(cursor, KeysetCursor.ASCENDING_START))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void nextPointsAtLastRowOfPageWhenMoreRowsFollow() {
+        List<KeysetCursor> rows = List.of(
+                new KeysetCursor(AT, UUID.randomUUID()),
+                new KeysetCursor(AT.plusSeconds(1), UUID.randomUUID()),
+                new KeysetCursor(AT.plusSeconds(2), UUID.randomUUID())
+        );
+
+        String next = KeysetCursor.next(rows, 2, Function.identity());
+
+        assertThat(KeysetCursor.parse(next, KeysetCursor.ASCENDING_START)).isEqualTo(rows.get(1));
+    }
+
+    @Test
+    void nextIsNullOnLastPage() {
+        List<KeysetCursor> fullPage = List.of(
+                new KeysetCursor(AT, UUID.randomUUID()),
+                new KeysetCursor(AT.plusSeconds(1), UUID.randomUUID())
+        );
+
+        assertThat(KeysetCursor.next(fullPage, 2, Function.identity())).isNull();
+        assertThat(KeysetCursor.next(fullPage.subList(0, 1), 2, Function.identity())).isNull();
+        assertThat(KeysetCursor.next(List.<KeysetCursor>of(), 2, Function.identity())).isNull();
+    }
+}
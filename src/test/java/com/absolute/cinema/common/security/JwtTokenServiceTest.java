@@ -0,0 +1,108 @@
+package com.absolute.cinema.common.security;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void tokensIssuedBackToBackAreDistinctAndRevokedIndependently() {
+        User user = fixtures.user();
+
+        String first = jwtTokenService.generateToken(user);
+        String second = jwtTokenService.generateToken(user);
+        jwtTokenService.saveToken(user, first);
+        jwtTokenService.saveToken(user, second);
+
+        assertThat(first).isNotEqualTo(second);
+
+        jwtTokenService.revokeToken(first);
+
+        assertThat(jwtTokenService.authenticate(first, username -> user)).isNull();
+        assertThat(jwtTokenService.authenticate(second, username -> user)).isSameAs(user);
+    }
+
+    @Test
+    void revokedTokenStopsAuthenticatingEvenWhenCached() {
+        User user = fixtures.user();
+        String token = issue(user);
+        assertThat(jwtTokenService.authenticate(token, username -> user)).isSameAs(user);
+
+        jwtTokenService.revokeToken(token);
+
+        assertThat(jwtTokenService.authenticate(token, username -> user)).isNull();
+    }
+
+    @Test
+    void loggingOutStopsEveryCachedTokenOfTheUser() {
+        User user = fixtures.user();
+        String first = issue(user);
+        String second = issue(user);
+        jwtTokenService.authenticate(first, username -> user);
+        jwtTokenService.authenticate(second, username -> user);
+
+        jwtTokenService.revokeAllTokens(user);
+
+        assertThat(jwtTokenService.authenticate(first, username -> user)).isNull();
+        assertThat(jwtTokenService.authenticate(second, username -> user)).isNull();
+    }
+
+    @Test
+    void validationOverlappingAnEvictionIsNotCached() {
+        User user = fixtures.user();
+        String token = issue(user);
+
+        UserDetails principal = jwtTokenService.authenticate(token, username -> {
+            jwtTokenService.evictAuthenticatedTokens(user.getId());
+            return user;
+        });
+
+        assertThat(principal).isSameAs(user);
+        assertThat(loads(token, user)).isEqualTo(1);
+        assertThat(loads(token, user)).isZero();
+    }
+
+    @Test
+    void evictionInsideATransactionWaitsForTheCommit() {
+        User user = fixtures.user();
+        String token = issue(user);
+        jwtTokenService.authenticate(token, username -> user);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jwtTokenService.evictAuthenticatedTokens(user.getId());
+            assertThat(loads(token, user)).isZero();
+        });
+
+        assertThat(loads(token, user)).isEqualTo(1);
+    }
+
+    private String issue(User user) {
+        String token = jwtTokenService.generateToken(user);
+        jwtTokenService.saveToken(user, token);
+        return token;
+    }
+
+    // Authenticates the token and returns how many times the user had to be loaded for it
+    private int loads(String token, User user) {
+        AtomicInteger loads = new AtomicInteger();
+        jwtTokenService.authenticate(token, username -> {
+            loads.incrementAndGet();
+            return user;
+        });
+        return loads.get();
+    }
+}
@@ -0,0 +1,55 @@
+package com.absolute.cinema.repository;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the hot repository queries can be answered from the indexes created by the Flyway migrations.
+ * Sequential scans are disabled so that the planner's choice does not depend on the size of the test tables.
+ */
+class QueryPlanTest extends PostgresIntegrationTest {
+
+    private static final String ID = "'00000000-0000-0000-0000-000000000001'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', textBlock = """
+            tickets of a session by status | idx_tickets_session_status | select id from tickets where session_id = %1$s and status = 'AVAILABLE'
+            tickets of a purchase | idx_tickets_purchase_id | select id from tickets where purchase_id = %1$s
+            tickets reserved by a user | idx_tickets_reserved_by_user_id | select id from tickets where reserved_by_user_id = %1$s
+            expired reservations | idx_tickets_reserved_until_reserved | select id from tickets where status = 'RESERVED' and reserved_until < now() order by reserved_until limit 500
+            sessions page | idx_sessions_start_at | select id from sessions where (start_at, id) > (now(), %1$s) order by start_at, id limit 20
+            sessions of a film | idx_sessions_film_start_at | select id from sessions where film_id = %1$s and start_at > now() order by start_at, id limit 20
+            purchases of a client | idx_purchases_client_created_at | select id from purchases where client_id = %1$s and (created_at, id) < (now(), %1$s) order by created_at desc, id desc limit 20
+            films page | idx_films_created_at | select id from films where (created_at, id) < (now(), %1$s) order by created_at desc, id desc limit 20
+            halls page | idx_halls_created_at | select id from halls where (created_at, id) < (now(), %1$s) order by created_at desc, id desc limit 20
+            reviews of a client | idx_reviews_client_id | select id from reviews where client_id = %1$s
+            seats of a category | idx_seats_category_id | select id from seats where category_id = %1$s
+            due payment attempts | idx_payments_next_attempt_at_pending | select id from payments where status = 'PENDING' and next_attempt_at <= now() order by next_attempt_at limit 100
+            """)
+    void hotQueryUsesIndex(String name, String index, String query) {
+        assertThat(explain(query.formatted(ID))).contains(index);
+    }
+
+    private String explain(String query) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            List<String> plan = jdbcTemplate.queryForList("explain " + query, String.class);
+            return String.join("\n", plan);
+        });
+    }
+}
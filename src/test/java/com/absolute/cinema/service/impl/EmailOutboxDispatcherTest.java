@@ -0,0 +1,134 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.service.EmailSenderService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailOutboxDispatcherTest extends PostgresIntegrationTest {
+
+    private static final int MAX_ATTEMPTS = 8;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailSenderService emailSenderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String recipient;
+
+    @BeforeEach
+    void setUp() {
+        recipient = UUID.randomUUID() + "@test.local";
+    }
+
+    @Test
+    void emailEnqueuedInRolledBackTransactionIsNeverSent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailSenderService.enqueueEmail(recipient, "Subject", "Body");
+            status.setRollbackOnly();
+        });
+
+        dispatcher.dispatch();
+
+        assertThat(outboxRows()).isZero();
+        assertThat(receivedSubjects()).isEmpty();
+    }
+
+    @Test
+    void committedEmailIsSentAndMarkedSent() {
+        Instant before = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> emailSenderService.enqueueEmail(recipient, "Subject", "Body"));
+
+        dispatcher.dispatch();
+
+        assertThat(receivedSubjects()).containsExactly("Subject");
+        assertThat(column("status", String.class)).isEqualTo("SENT");
+        assertThat(column("sent_at", OffsetDateTime.class).toInstant()).isBetween(before, Instant.now());
+    }
+
+    @Test
+    void failedDeliveriesBackOffExponentiallyUntilTheEmailIsAbandoned() {
+        greenMail.stop();
+        transactionTemplate.executeWithoutResult(status -> emailSenderService.enqueueEmail(recipient, "Subject", "Body"));
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            makeDue();
+            Instant before = Instant.now();
+            dispatcher.dispatch();
+
+            assertThat(column("attempts", Integer.class)).isEqualTo(attempt);
+            assertThat(column("last_error", String.class)).isNotBlank();
+            Duration doubled = INITIAL_BACKOFF.multipliedBy(1L << (attempt - 1));
+            Duration backoff = doubled.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : doubled;
+            Duration delay = Duration.between(before, column("next_attempt_at", OffsetDateTime.class).toInstant());
+            assertThat(delay).isBetween(backoff.minusSeconds(5), backoff.plusSeconds(5));
+            assertThat(column("status", String.class)).isEqualTo(attempt < MAX_ATTEMPTS ? "PENDING" : "FAILED");
+        }
+
+        makeDue();
+        dispatcher.dispatch();
+
+        assertThat(column("attempts", Integer.class)).isEqualTo(MAX_ATTEMPTS);
+        assertThat(column("status", String.class)).isEqualTo("FAILED");
+    }
+
+    private void makeDue() {
+        fixtures.jdbc().update("update email_outbox set next_attempt_at = now() - interval '1 second' where recipient = ?", recipient);
+    }
+
+    private <T> T column(String name, Class<T> type) {
+        return fixtures.jdbc().queryForObject("select " + name + " from email_outbox where recipient = ?", type, recipient);
+    }
+
+    private int outboxRows() {
+        return fixtures.jdbc().queryForObject("select count(*) from email_outbox where recipient = ?", Integer.class, recipient);
+    }
+
+    private List<String> receivedSubjects() {
+        return Arrays.stream(greenMail.getReceivedMessages())
+                .filter(this::isForRecipient)
+                .map(message -> {
+                    try {
+                        return message.getSubject();
+                    } catch (MessagingException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private boolean isForRecipient(MimeMessage message) {
+        try {
+            return Arrays.stream(message.getRecipients(Message.RecipientType.TO))
+                    .anyMatch(address -> address.toString().equals(recipient));
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
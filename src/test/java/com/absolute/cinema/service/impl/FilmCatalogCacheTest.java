@@ -0,0 +1,119 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.controller.FilmController;
+import com.absolute.cinema.dto.CatalogEntryDTO;
+import com.absolute.cinema.dto.UpdateFilmDTO;
+import com.absolute.cinema.dto.review.ReviewCreateDTO;
+import com.absolute.cinema.entity.Film;
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.service.FilmService;
+import com.absolute.cinema.service.ReviewService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilmCatalogCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FilmCatalogCache filmCatalogCache;
+
+    @Autowired
+    private FilmController filmController;
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Test
+    void matchingETagIsAnsweredWithNotModified() {
+        UUID film = fixtures.film();
+
+        ResponseEntity<byte[]> first = filmController.getFilmById(film, request(null, new MockHttpServletResponse()));
+        String eTag = first.getHeaders().getETag();
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(eTag).isNotBlank();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(filmController.getFilmById(film, request(eTag, response))).isNull();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+    }
+
+    @Test
+    void reviewReplacesTheCachedFilmAndPages() {
+        User user = fixtures.user();
+        UUID film = fixtures.film();
+        UUID session = fixtures.session(film, fixtures.hall(1), LocalDateTime.now().minusDays(1));
+        fixtures.sell(fixtures.tickets(session).getFirst(), fixtures.purchase(user, "PAID"));
+        CatalogEntryDTO filmBefore = filmService.getCatalogFilm(film);
+        CatalogEntryDTO pageBefore = filmService.getCatalogPage(0, null, 1_000);
+
+        reviewService.create(film, new ReviewCreateDTO(4, "Good"), user);
+
+        CatalogEntryDTO filmAfter = filmService.getCatalogFilm(film);
+        assertThat(filmAfter.eTag()).isNotEqualTo(filmBefore.eTag());
+        assertThat(json(filmAfter)).contains("\"count\":1");
+        assertThat(filmService.getCatalogPage(0, null, 1_000).eTag()).isNotEqualTo(pageBefore.eTag());
+    }
+
+    @Test
+    void filmUpdateReplacesTheCachedFilmAndPages() {
+        UUID film = fixtures.film();
+        CatalogEntryDTO filmBefore = filmService.getCatalogFilm(film);
+        CatalogEntryDTO pageBefore = filmService.getCatalogPage(0, null, 1_000);
+
+        filmService.updateFilm(film, new UpdateFilmDTO("Renamed", "Description", 120, Film.AgeRating.TWELVE_PLUS, null));
+
+        CatalogEntryDTO filmAfter = filmService.getCatalogFilm(film);
+        assertThat(filmAfter.eTag()).isNotEqualTo(filmBefore.eTag());
+        assertThat(json(filmAfter)).contains("Renamed");
+        assertThat(filmService.getCatalogPage(0, null, 1_000).eTag()).isNotEqualTo(pageBefore.eTag());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        UUID film = UUID.randomUUID();
+
+        CatalogEntryDTO stalePage = filmCatalogCache.getPage(7, null, 3, () -> {
+            filmCatalogCache.invalidate(film);
+            return List.of("stale");
+        });
+        // Invalidating the same film from inside its own load would be a recursive update
+        CatalogEntryDTO staleFilm = filmCatalogCache.getFilm(film, () -> {
+            filmCatalogCache.invalidate(UUID.randomUUID());
+            return "stale";
+        });
+
+        assertThat(json(filmCatalogCache.getPage(7, null, 3, () -> List.of("fresh")))).contains("fresh");
+        assertThat(json(filmCatalogCache.getFilm(film, () -> "fresh"))).contains("fresh");
+        assertThat(json(stalePage)).contains("stale");
+        assertThat(json(staleFilm)).contains("stale");
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/films");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    private static String json(CatalogEntryDTO entry) {
+        return new String(entry.json(), StandardCharsets.UTF_8);
+    }
+}
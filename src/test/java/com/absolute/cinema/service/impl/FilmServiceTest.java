@@ -0,0 +1,55 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.common.exception.custom.ConflictException;
+import com.absolute.cinema.dto.UpdateFilmDTO;
+import com.absolute.cinema.entity.Film;
+import com.absolute.cinema.service.FilmService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FilmServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FilmService filmService;
+
+    @Test
+    void durationChangeKeepsTheOtherFieldChangesAndResizesSlots() {
+        UUID film = fixtures.film();
+        UUID session = fixtures.session(film, fixtures.hall(1), LocalDateTime.now().plusDays(1));
+
+        filmService.updateFilm(film, new UpdateFilmDTO("New title", "New description", 90, Film.AgeRating.SIXTEEN_PLUS, null));
+
+        Map<String, Object> row = fixtures.jdbc().queryForMap(
+                "select title, description, duration_minutes, age_rating from films where id = ?", film);
+        assertThat(row).containsEntry("title", "New title")
+                .containsEntry("description", "New description")
+                .containsEntry("duration_minutes", 90)
+                .containsEntry("age_rating", "SIXTEEN_PLUS");
+        assertThat(fixtures.jdbc().queryForObject(
+                "select extract(epoch from slot_end_at - slot_start_at) / 60 from sessions where id = ?",
+                Integer.class, session)).isEqualTo(90);
+    }
+
+    @Test
+    void durationThatWouldOverlapSessionsIsRejected() {
+        UUID film = fixtures.film();
+        UUID hall = fixtures.hall(1);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        fixtures.session(film, hall, start);
+        fixtures.session(fixtures.film(), hall, start.plusHours(3));
+
+        assertThatThrownBy(() -> filmService.updateFilm(film,
+                new UpdateFilmDTO("Film", "Description", 200, Film.AgeRating.SIXTEEN_PLUS, null)))
+                .isInstanceOf(ConflictException.class);
+        assertThat(fixtures.jdbc().queryForObject("select duration_minutes from films where id = ?", Integer.class, film))
+                .isEqualTo(120);
+    }
+}
@@ -0,0 +1,94 @@
+package com.absolute.cinema.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HallScheduleTest {
+
+    private static final OffsetDateTime NOON = OffsetDateTime.of(2030, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private final HallSchedule schedule = new HallSchedule();
+    private final UUID existingId = UUID.randomUUID();
+
+    @Test
+    void acceptsSlotsExactlyOneBreakApart() {
+        schedule.add(new HallSchedule.Slot(existingId, NOON, NOON.plusHours(2)));
+
+        assertThat(schedule.findConflict(NOON.plusHours(2).plusMinutes(20), NOON.plusHours(4), null)).isEmpty();
+        assertThat(schedule.findConflict(NOON.minusHours(2), NOON.minusMinutes(20), null)).isEmpty();
+    }
+
+    @Test
+    void rejectsSlotStartingWithinBreakAfterPrevious() {
+        HallSchedule.Slot existing = new HallSchedule.Slot(existingId, NOON, NOON.plusHours(2));
+        schedule.add(existing);
+        OffsetDateTime start = NOON.plusHours(2).plusMinutes(19);
+        OffsetDateTime end = start.plusHours(2);
+
+        assertThat(schedule.findConflict(start, end, null)).contains(existing);
+        assertThat(HallSchedule.describeConflict(existing, start, end))
+                .isEqualTo("Session must start at least 20 minutes after the previous session ends");
+    }
+
+    @Test
+    void rejectsSlotEndingWithinBreakBeforeNext() {
+        HallSchedule.Slot existing = new HallSchedule.Slot(existingId, NOON, NOON.plusHours(2));
+        schedule.add(existing);
+        OffsetDateTime end = NOON.minusMinutes(19);
+        OffsetDateTime start = end.minusHours(2);
+
+        assertThat(schedule.findConflict(start, end, null)).contains(existing);
+        assertThat(HallSchedule.describeConflict(existing, start, end))
+                .isEqualTo("Session must end at least 20 minutes before the next session starts");
+    }
+
+    @Test
+    void rejectsOverlappingSlot() {
+        HallSchedule.Slot existing = new HallSchedule.Slot(existingId, NOON, NOON.plusHours(2));
+        schedule.add(existing);
+        OffsetDateTime start = NOON.plusHours(1);
+        OffsetDateTime end = NOON.plusHours(3);
+
+        assertThat(schedule.findConflict(start, end, null)).contains(existing);
+        assertThat(HallSchedule.describeConflict(existing, start, end))
+                .isEqualTo("Session overlaps with an existing session");
+    }
+
+    @Test
+    void ignoresTheSessionBeingEdited() {
+        schedule.add(new HallSchedule.Slot(existingId, NOON, NOON.plusHours(2)));
+
+        assertThat(schedule.findConflict(NOON.plusMinutes(30), NOON.plusHours(2).plusMinutes(30), existingId)).isEmpty();
+    }
+
+    @Test
+    void resizedSlotReplacesThePreviousOne() {
+        schedule.add(new HallSchedule.Slot(existingId, NOON, NOON.plusHours(2)));
+        schedule.add(new HallSchedule.Slot(existingId, NOON, NOON.plusHours(1)));
+
+        assertThat(schedule.findConflict(NOON.plusHours(1).plusMinutes(20), NOON.plusHours(3), null)).isEmpty();
+    }
+
+    @Test
+    void findsLongSlotThatStartedFarBeforeTheCandidate() {
+        HallSchedule.Slot marathon = new HallSchedule.Slot(existingId, NOON, NOON.plusHours(6));
+        schedule.add(marathon);
+        schedule.add(new HallSchedule.Slot(UUID.randomUUID(), NOON.minusHours(3), NOON.minusHours(2)));
+
+        assertThat(schedule.findConflict(NOON.plusHours(5), NOON.plusHours(7), null)).contains(marathon);
+    }
+
+    @Test
+    void removedSlotNoLongerConflicts() {
+        schedule.add(new HallSchedule.Slot(existingId, NOON, NOON.plusHours(2)));
+
+        schedule.remove(existingId);
+
+        assertThat(schedule.findConflict(NOON, NOON.plusHours(2), null)).isEmpty();
+    }
+}
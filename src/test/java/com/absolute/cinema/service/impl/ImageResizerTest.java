@@ -0,0 +1,77 @@
+package com.absolute.cinema.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageResizerTest {
+
+    @Test
+    void roundsWidthsUpToBucketsAndCapsAtTheLargest() {
+        assertThat(ImageResizer.bucketFor(1)).isEqualTo(100);
+        assertThat(ImageResizer.bucketFor(100)).isEqualTo(100);
+        assertThat(ImageResizer.bucketFor(101)).isEqualTo(200);
+        assertThat(ImageResizer.bucketFor(5000)).isEqualTo(800);
+    }
+
+    @Test
+    void resizesToTheRequestedWidth() throws IOException {
+        byte[] png = png(400, 200);
+
+        ImageResizer.ResizedImage resized = ImageResizer.resize(new ByteArrayInputStream(png), "image/png", 100).orElseThrow();
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(resized.content()));
+        assertThat(resized.contentType()).isEqualTo("image/png");
+        assertThat(image.getWidth()).isEqualTo(100);
+        assertThat(image.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    void skipsImagesAlreadyNarrowEnough() throws IOException {
+        assertThat(ImageResizer.resize(new ByteArrayInputStream(png(80, 80)), "image/png", 100)).isEmpty();
+    }
+
+    @Test
+    void skipsCorruptImages() throws IOException {
+        byte[] truncated = Arrays.copyOf(png(400, 200), 40);
+
+        assertThat(ImageResizer.resize(new ByteArrayInputStream(truncated), "image/png", 100)).isEmpty();
+    }
+
+    @Test
+    void refusesImagesDeclaringTooManyPixelsWithoutDecodingThem() throws IOException {
+        byte[] bomb = withDeclaredSize(png(400, 200), 100_000, 100_000);
+
+        assertThat(ImageResizer.resize(new ByteArrayInputStream(bomb), "image/png", 100)).isEmpty();
+    }
+
+    @Test
+    void resizesWideImagesWithinThePixelLimit() throws IOException {
+        assertThat(ImageResizer.resize(new ByteArrayInputStream(png(5_000, 10)), "image/png", 100)).isPresent();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+    // Rewrites the width and height in the PNG header and recomputes its checksum
+    private static byte[] withDeclaredSize(byte[] png, int width, int height) {
+        ByteBuffer buffer = ByteBuffer.wrap(png.clone());
+        buffer.putInt(16, width).putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 12, 17);
+        buffer.putInt(29, (int) crc.getValue());
+        return buffer.array();
+    }
+}
@@ -0,0 +1,70 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.dto.MediaDTO;
+import com.absolute.cinema.entity.Media;
+import com.absolute.cinema.repository.MediaRepository;
+import com.absolute.cinema.service.MediaService;
+import com.absolute.cinema.service.MediaStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaBlobStoreTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MediaBlobStore mediaBlobStore;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Autowired
+    private MediaRepository mediaRepository;
+
+    private final byte[] bytes = ("blob-" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void collectsBlobOfRolledBackWriter() {
+        AtomicReference<String> key = new AtomicReference<>();
+
+        assertThatThrownBy(() -> mediaBlobStore.storeReferenced(content(), stored -> {
+            key.set(stored.key());
+            throw new IllegalStateException("writer failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(mediaStorage.exists(key.get())).isFalse();
+    }
+
+    @Test
+    void keepsSharedBlobUntilLastReferenceIsDeleted() {
+        MediaDTO first = mediaService.uploadMedia(upload(), Media.MediaType.IMAGE);
+        MediaDTO second = mediaService.uploadMedia(upload(), Media.MediaType.IMAGE);
+        String key = mediaRepository.findById(first.id()).orElseThrow().getStorageKey();
+        assertThat(mediaRepository.findById(second.id()).orElseThrow().getStorageKey()).isEqualTo(key);
+
+        mediaService.deleteMedia(first.id());
+        assertThat(mediaStorage.exists(key)).isTrue();
+
+        mediaService.deleteMedia(second.id());
+        assertThat(mediaStorage.exists(key)).isFalse();
+    }
+
+    private ByteArrayResource content() {
+        return new ByteArrayResource(bytes);
+    }
+
+    private MockMultipartFile upload() {
+        return new MockMultipartFile("file", "poster.png", "image/png", bytes);
+    }
+}
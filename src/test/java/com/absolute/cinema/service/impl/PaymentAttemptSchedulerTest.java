@@ -0,0 +1,99 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class PaymentAttemptSchedulerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PaymentAttemptScheduler scheduler;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private UUID purchase;
+    private UUID payment;
+    private UUID ticket;
+
+    @BeforeEach
+    void setUp() {
+        User user = fixtures.user();
+        purchase = fixtures.purchase(user, "PENDING");
+        payment = fixtures.payment(purchase, "PENDING");
+        ticket = fixtures.tickets(fixtures.session(1)).getFirst();
+        fixtures.reserve(ticket, user, purchase, LocalDateTime.now().plusMinutes(10));
+    }
+
+    @Test
+    void resumesOverduePaymentLeftByAnotherInstance() {
+        fixtures.paymentAttempts(payment, 1, 3, LocalDateTime.now().minusMinutes(5));
+
+        scheduler.resumeOverdue();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> fixtures.paymentStatus(payment).equals("SUCCESS"));
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("PAID");
+        assertThat(fixtures.ticketStatus(ticket)).isEqualTo("SOLD");
+    }
+
+    @Test
+    void failsOverduePaymentWhoseAttemptsAreSpent() {
+        fixtures.paymentAttempts(payment, 3, 3, LocalDateTime.now().minusMinutes(5));
+
+        scheduler.resumeOverdue();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> fixtures.paymentStatus(payment).equals("FAILED"));
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("FAILED");
+        assertThat(fixtures.ticketStatus(ticket)).isEqualTo("AVAILABLE");
+    }
+
+    @Test
+    void successForCancelledPurchaseRequiresRefundInsteadOfPayingIt() {
+        fixtures.jdbc().update("update purchases set status = 'CANCELLED' where id = ?", purchase);
+        fixtures.expire(ticket);
+        fixtures.paymentAttempts(payment, 1, 3, LocalDateTime.now().minusMinutes(5));
+
+        scheduler.resumeOverdue();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> fixtures.paymentStatus(payment).equals("REFUND_REQUIRED"));
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("CANCELLED");
+        assertThat(fixtures.ticketStatus(ticket)).isEqualTo("AVAILABLE");
+    }
+
+    @Test
+    void successAfterSomeHoldsExpiredRequiresRefundAndReleasesTheRest() {
+        User user = fixtures.user();
+        UUID partial = fixtures.purchase(user, "PENDING");
+        UUID partialPayment = fixtures.payment(partial, "PENDING");
+        List<UUID> tickets = fixtures.tickets(fixtures.session(2));
+        tickets.forEach(held -> fixtures.reserve(held, user, partial, LocalDateTime.now().plusMinutes(10)));
+        fixtures.expire(tickets.getFirst());
+        fixtures.paymentAttempts(partialPayment, 1, 3, LocalDateTime.now().minusMinutes(5));
+
+        scheduler.resumeOverdue();
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> fixtures.paymentStatus(partialPayment).equals("REFUND_REQUIRED"));
+        assertThat(fixtures.purchaseStatus(partial)).isEqualTo("FAILED");
+        assertThat(tickets).allSatisfy(held -> assertThat(fixtures.ticketStatus(held)).isEqualTo("AVAILABLE"));
+    }
+
+    @Test
+    void leavesLeasedAndScheduledPaymentsAlone() {
+        fixtures.paymentAttempts(payment, 1, 3, LocalDateTime.now().plusMinutes(1));
+
+        assertThat(paymentRepository.findDueAttempts(OffsetDateTime.now(), Limit.of(100))).doesNotContain(payment);
+    }
+}
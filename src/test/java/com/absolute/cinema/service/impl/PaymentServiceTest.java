@@ -0,0 +1,65 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.common.exception.custom.ConflictException;
+import com.absolute.cinema.dto.PaymentProcessDTO;
+import com.absolute.cinema.dto.PaymentResponseDTO;
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.service.PaymentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    private User user;
+    private UUID ticket;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user();
+        ticket = fixtures.tickets(fixtures.session(1)).getFirst();
+    }
+
+    @Test
+    void approvedPaymentSellsTheReservedTickets() {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        fixtures.reserve(ticket, user, purchase, LocalDateTime.now().plusMinutes(10));
+
+        PaymentResponseDTO response = paymentService.processPayment(request(purchase));
+
+        assertThat(fixtures.paymentStatus(response.paymentId())).isEqualTo("SUCCESS");
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("PAID");
+        assertThat(fixtures.ticketStatus(ticket)).isEqualTo("SOLD");
+    }
+
+    @Test
+    void rejectsPaymentForSettledPurchases() {
+        UUID paid = fixtures.purchase(user, "PAID");
+        UUID failed = fixtures.purchase(user, "FAILED");
+
+        assertThatThrownBy(() -> paymentService.processPayment(request(paid))).isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> paymentService.processPayment(request(failed))).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void rejectsSecondPaymentWhileOneIsInProgress() {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        fixtures.payment(purchase, "PENDING");
+
+        assertThatThrownBy(() -> paymentService.processPayment(request(purchase))).isInstanceOf(ConflictException.class);
+    }
+
+    private static PaymentProcessDTO request(UUID purchaseId) {
+        return new PaymentProcessDTO(purchaseId, "4111111111111111", "12/30", "123", "Test User");
+    }
+}
@@ -0,0 +1,124 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.common.exception.custom.ConflictException;
+import com.absolute.cinema.dto.CreatePurchaseDTO;
+import com.absolute.cinema.dto.PurchaseDTO;
+import com.absolute.cinema.entity.Purchase;
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.service.PurchaseService;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PurchaseServiceTest extends PostgresIntegrationTest {
+
+    private static final long MAX_CHECKOUT_ALLOCATION = 1024 * 1024;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    private User user;
+    private List<UUID> tickets;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user();
+        tickets = fixtures.tickets(fixtures.session(2));
+    }
+
+    @Test
+    void checkoutRunsAFixedStatementBudgetRegardlessOfTicketCount() {
+        List<UUID> single = reservedTickets(1);
+        List<UUID> several = reservedTickets(5);
+
+        long singleStatements = countStatements(() -> purchaseService.createPurchaseForClient(new CreatePurchaseDTO(single), user));
+        long allocatedBefore = allocatedBytes();
+        long severalStatements = countStatements(() -> purchaseService.createPurchaseForClient(new CreatePurchaseDTO(several), user));
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        // Load the candidate tickets, insert the purchase, attach the tickets to it
+        assertThat(singleStatements).isEqualTo(3);
+        assertThat(severalStatements).isEqualTo(singleStatements);
+        // About 120 KB on the calling thread once warmed up by the first checkout; the ceiling only catches blow-ups
+        assertThat(allocated).isLessThan(MAX_CHECKOUT_ALLOCATION);
+        assertThat(several).allSatisfy(ticket -> assertThat(fixtures.ticketStatus(ticket)).isEqualTo("RESERVED"));
+    }
+
+    @Test
+    void cancellingReleasesTheTicketsOfThePurchase() {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        tickets.forEach(ticket -> fixtures.reserve(ticket, user, purchase, LocalDateTime.now().plusMinutes(10)));
+
+        PurchaseDTO cancelled = purchaseService.cancelPurchaseById(purchase, user);
+
+        assertThat(cancelled.status()).isEqualTo(Purchase.Status.CANCELLED);
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("CANCELLED");
+        assertThat(tickets).allSatisfy(ticket -> assertThat(fixtures.ticketStatus(ticket)).isEqualTo("AVAILABLE"));
+    }
+
+    @Test
+    void cancellingIsRejectedWhileAPaymentIsInProgress() {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        tickets.forEach(ticket -> fixtures.reserve(ticket, user, purchase, LocalDateTime.now().plusMinutes(10)));
+        fixtures.payment(purchase, "PENDING");
+
+        assertThatThrownBy(() -> purchaseService.cancelPurchaseById(purchase, user)).isInstanceOf(ConflictException.class);
+
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("PENDING");
+        assertThat(tickets).allSatisfy(ticket -> assertThat(fixtures.ticketStatus(ticket)).isEqualTo("RESERVED"));
+    }
+
+    @Test
+    void cancellingIssuesTheSameStatementsRegardlessOfTicketCount() {
+        UUID single = purchaseWithTickets(1);
+        UUID several = purchaseWithTickets(5);
+
+        long singleStatements = countStatements(() -> purchaseService.cancelPurchaseById(single, user));
+        long severalStatements = countStatements(() -> purchaseService.cancelPurchaseById(several, user));
+
+        assertThat(severalStatements).isEqualTo(singleStatements);
+    }
+
+    @Test
+    void listingLoadsAPageInAFixedNumberOfStatements() {
+        purchaseWithTickets(1);
+        long onePurchase = countStatements(() -> purchaseService.getPurchasesForClient(0, 20, user.getId()));
+
+        for (int i = 0; i < 4; i++) {
+            purchaseWithTickets(3);
+        }
+        long fivePurchases = countStatements(() -> purchaseService.getPurchasesForClient(0, 20, user.getId()));
+
+        // One query for the page and one for all of its tickets; a page that is not full needs no count query
+        assertThat(onePurchase).isEqualTo(2);
+        assertThat(fivePurchases).isEqualTo(onePurchase);
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private List<UUID> reservedTickets(int count) {
+        List<UUID> reserved = fixtures.tickets(fixtures.session(count));
+        reserved.forEach(ticket -> fixtures.reserve(ticket, user, null, LocalDateTime.now().plusMinutes(10)));
+        return reserved;
+    }
+
+    private UUID purchaseWithTickets(int count) {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        fixtures.tickets(fixtures.session(count))
+                .forEach(ticket -> fixtures.reserve(ticket, user, purchase, LocalDateTime.now().plusMinutes(10)));
+        return purchase;
+    }
+}
@@ -0,0 +1,124 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.repository.PurchaseRepository;
+import com.absolute.cinema.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationExpirySweeperTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ReservationExpirySweeper sweeper;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private List<UUID> tickets;
+    private LocalDateTime expired;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user();
+        tickets = fixtures.tickets(fixtures.session(2));
+        expired = LocalDateTime.now().minusMinutes(1);
+    }
+
+    @Test
+    void releasesExpiredHoldWithoutPurchase() {
+        fixtures.reserve(tickets.get(0), user, null, expired);
+        fixtures.reserve(tickets.get(1), user, null, LocalDateTime.now().plusMinutes(10));
+
+        sweeper.sweep();
+
+        assertThat(fixtures.ticketStatus(tickets.get(0))).isEqualTo("AVAILABLE");
+        assertThat(fixtures.ticketStatus(tickets.get(1))).isEqualTo("RESERVED");
+    }
+
+    @Test
+    void releasesExpiredHoldOfFailedPurchase() {
+        UUID purchase = fixtures.purchase(user, "FAILED");
+        fixtures.payment(purchase, "FAILED");
+        fixtures.reserve(tickets.get(0), user, purchase, expired);
+
+        sweeper.sweep();
+
+        assertThat(fixtures.ticketStatus(tickets.get(0))).isEqualTo("AVAILABLE");
+        assertThat(fixtures.jdbc().queryForObject(
+                "select purchase_id from tickets where id = ?", UUID.class, tickets.get(0))).isNull();
+    }
+
+    @Test
+    void releasesAbandonedPendingPurchaseAndFailsIt() {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        fixtures.reserve(tickets.get(0), user, purchase, expired);
+        fixtures.reserve(tickets.get(1), user, purchase, expired);
+
+        sweeper.sweep();
+
+        assertThat(fixtures.ticketStatus(tickets.get(0))).isEqualTo("AVAILABLE");
+        assertThat(fixtures.ticketStatus(tickets.get(1))).isEqualTo("AVAILABLE");
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("FAILED");
+    }
+
+    @Test
+    void keepsHoldWhilePaymentIsInFlight() {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        fixtures.payment(purchase, "PENDING");
+        fixtures.reserve(tickets.get(0), user, purchase, expired);
+
+        sweeper.sweep();
+
+        assertThat(fixtures.ticketStatus(tickets.get(0))).isEqualTo("RESERVED");
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("PENDING");
+    }
+
+    @Test
+    void paymentOpenedAfterLookupKeepsHoldAndPurchase() {
+        UUID purchase = fixtures.purchase(user, "PENDING");
+        fixtures.reserve(tickets.get(0), user, purchase, expired);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<UUID> candidates = ticketRepository.findExpiredReservations(now, Limit.of(10)).stream()
+                .map(TicketRepository.ExpiredReservationView::getId)
+                .toList();
+        assertThat(candidates).contains(tickets.get(0));
+
+        fixtures.payment(purchase, "PENDING");
+
+        List<UUID> released = transactionTemplate.execute(status -> ticketRepository.releaseExpiredReservations(candidates, now));
+        int failed = transactionTemplate.execute(status -> purchaseRepository.failPending(List.of(purchase)));
+
+        assertThat(released).doesNotContain(purchase);
+        assertThat(failed).isZero();
+        assertThat(fixtures.ticketStatus(tickets.get(0))).isEqualTo("RESERVED");
+        assertThat(fixtures.purchaseStatus(purchase)).isEqualTo("PENDING");
+    }
+
+    @Test
+    void keepsHoldOfPaidPurchase() {
+        UUID purchase = fixtures.purchase(user, "PAID");
+        fixtures.reserve(tickets.get(0), user, purchase, expired);
+
+        sweeper.sweep();
+
+        assertThat(fixtures.ticketStatus(tickets.get(0))).isEqualTo("RESERVED");
+    }
+}
@@ -0,0 +1,132 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.controller.ReviewController;
+import com.absolute.cinema.dto.review.FilmRatingDTO;
+import com.absolute.cinema.dto.review.ReviewCreateDTO;
+import com.absolute.cinema.dto.review.ReviewDTO;
+import com.absolute.cinema.dto.review.ReviewUpdateDTO;
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.service.ReviewService;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewServiceTest extends PostgresIntegrationTest {
+
+    private static final int EDITORS = 20;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewController reviewController;
+
+    private User user;
+    private UUID film;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user();
+        film = fixtures.film();
+        UUID session = fixtures.session(film, fixtures.hall(1), LocalDateTime.now().minusDays(1));
+        fixtures.sell(fixtures.tickets(session).getFirst(), fixtures.purchase(user, "PAID"));
+    }
+
+    @Test
+    void authenticatedWritesNeverLoadTheUser() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        ReviewDTO created = reviewService.create(film, new ReviewCreateDTO(4, "Good"), user);
+        reviewService.update(created.id(), new ReviewUpdateDTO(5, "Great"), user);
+        reviewService.delete(created.id(), user);
+
+        EntityStatistics users = statistics.getEntityStatistics(User.class.getName());
+        assertThat(users.getLoadCount()).isZero();
+        assertThat(users.getFetchCount()).isZero();
+        assertThat(statistics.getQueries()).noneMatch(query -> query.contains("User"));
+    }
+
+    @Test
+    void ratingAggregateFollowsCreateUpdateAndDelete() {
+        ReviewDTO created = reviewService.create(film, new ReviewCreateDTO(4, "Good"), user);
+        assertAggregateMatchesReviews(1);
+
+        reviewService.update(created.id(), new ReviewUpdateDTO(2, null), user);
+        assertAggregateMatchesReviews(1);
+
+        reviewService.update(created.id(), new ReviewUpdateDTO(null, "Text only"), user);
+        assertAggregateMatchesReviews(1);
+
+        reviewService.delete(created.id(), user);
+        assertAggregateMatchesReviews(0);
+    }
+
+    @Test
+    void concurrentEditsOfOneReviewKeepTheAggregateExact() throws Exception {
+        ReviewDTO created = reviewService.create(film, new ReviewCreateDTO(1, "Bad"), user);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> edits = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < EDITORS; i++) {
+                int rating = i % 5 + 1;
+                edits.add(executor.submit(() -> {
+                    start.await();
+                    return reviewService.update(created.id(), new ReviewUpdateDTO(rating, null), user);
+                }));
+            }
+            start.countDown();
+        }
+        for (Future<?> edit : edits) {
+            edit.get();
+        }
+
+        assertAggregateMatchesReviews(1);
+    }
+
+    private void assertAggregateMatchesReviews(int reviews) {
+        Map<String, Object> expected = fixtures.jdbc().queryForMap("""
+                select count(*)::int as review_count,
+                       coalesce(sum(rating), 0)::int as rating_sum,
+                       (count(*) filter (where rating = 1))::int as rating_1,
+                       (count(*) filter (where rating = 2))::int as rating_2,
+                       (count(*) filter (where rating = 3))::int as rating_3,
+                       (count(*) filter (where rating = 4))::int as rating_4,
+                       (count(*) filter (where rating = 5))::int as rating_5
+                  from reviews
+                 where film_id = ?
+                """, film);
+        Map<String, Object> stored = fixtures.jdbc().queryForMap("""
+                select review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5
+                  from film_rating_stats
+                 where film_id = ?
+                """, film);
+        assertThat(expected).containsEntry("review_count", reviews);
+        assertThat(stored).isEqualTo(expected);
+
+        FilmRatingDTO rating = reviewController.getFilmRating(film);
+        int count = (Integer) expected.get("review_count");
+        int sum = (Integer) expected.get("rating_sum");
+        assertThat(rating.count()).isEqualTo(count);
+        assertThat(rating.average()).isEqualTo(count == 0 ? null : (double) sum / count);
+        assertThat(rating.histogram()).containsExactly(
+                (Integer) expected.get("rating_1"), (Integer) expected.get("rating_2"), (Integer) expected.get("rating_3"),
+                (Integer) expected.get("rating_4"), (Integer) expected.get("rating_5"));
+    }
+}
@@ -0,0 +1,126 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.dto.TicketDTO;
+import com.absolute.cinema.entity.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeatAvailabilityIndexTest {
+
+    private final SeatAvailabilityIndex index = new SeatAvailabilityIndex();
+    private final UUID sessionId = UUID.randomUUID();
+    private final TicketDTO first = ticket(Ticket.Status.AVAILABLE);
+    private final TicketDTO second = ticket(Ticket.Status.AVAILABLE);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<UUID, List<TicketDTO>> loader = id -> {
+        loads.incrementAndGet();
+        return List.of(first, second);
+    };
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsSessionOnceAndServesRepeatedReadsFromMemory() {
+        assertThat(index.getTickets(sessionId, null, loader)).containsExactly(first, second);
+        assertThat(index.getTickets(sessionId, null, loader)).containsExactly(first, second);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void appliesSingleTicketTransitionAndFiltersByStatus() {
+        index.getTickets(sessionId, null, loader);
+        OffsetDateTime until = OffsetDateTime.now().plusMinutes(15);
+
+        index.update(sessionId, first.id(), Ticket.Status.RESERVED, until);
+
+        assertThat(index.getTickets(sessionId, Ticket.Status.RESERVED, loader))
+                .singleElement()
+                .satisfies(ticket -> {
+                    assertThat(ticket.id()).isEqualTo(first.id());
+                    assertThat(ticket.reservedUntil()).isEqualTo(until);
+                });
+        assertThat(index.getTickets(sessionId, Ticket.Status.AVAILABLE, loader))
+                .extracting(TicketDTO::id)
+                .containsExactly(second.id());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void appliesBulkTransition() {
+        index.getTickets(sessionId, null, loader);
+
+        index.update(sessionId, List.of(first.id(), second.id()), Ticket.Status.SOLD, null);
+
+        assertThat(index.getTickets(sessionId, null, loader))
+                .extracting(TicketDTO::status)
+                .containsOnly(Ticket.Status.SOLD);
+    }
+
+    @Test
+    void ignoresUnknownTicketsAndSessionsThatAreNotLoaded() {
+        index.getTickets(sessionId, null, loader);
+
+        index.update(sessionId, UUID.randomUUID(), Ticket.Status.SOLD, null);
+        index.update(UUID.randomUUID(), first.id(), Ticket.Status.SOLD, null);
+
+        assertThat(index.getTickets(sessionId, Ticket.Status.AVAILABLE, loader)).hasSize(2);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictForcesReload() {
+        index.getTickets(sessionId, null, loader);
+
+        index.evict(sessionId);
+        index.getTickets(sessionId, null, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void defersTransitionsUntilCommit() {
+        index.getTickets(sessionId, null, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.update(sessionId, first.id(), Ticket.Status.SOLD, null);
+        assertThat(index.getTickets(sessionId, Ticket.Status.SOLD, loader)).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.getTickets(sessionId, Ticket.Status.SOLD, loader))
+                .extracting(TicketDTO::id)
+                .containsExactly(first.id());
+    }
+
+    @Test
+    void dropsTransitionsOfRolledBackTransactions() {
+        index.getTickets(sessionId, null, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.update(sessionId, first.id(), Ticket.Status.SOLD, null);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(index.getTickets(sessionId, Ticket.Status.SOLD, loader)).isEmpty();
+    }
+
+    private TicketDTO ticket(Ticket.Status status) {
+        return new TicketDTO(UUID.randomUUID(), sessionId, UUID.randomUUID(), UUID.randomUUID(), 500, status, null);
+    }
+}
@@ -0,0 +1,119 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.common.exception.custom.BadRequestException;
+import com.absolute.cinema.common.exception.custom.ConflictException;
+import com.absolute.cinema.dto.CreateSessionDTO;
+import com.absolute.cinema.dto.PeriodicSessionConfigDTO;
+import com.absolute.cinema.dto.PeriodicSessionsResultDTO;
+import com.absolute.cinema.dto.SessionCreatePeriod;
+import com.absolute.cinema.service.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionServiceTest extends PostgresIntegrationTest {
+
+    private static final int LARGE_HALL_SEATS = 400;
+
+    @Autowired
+    private SessionService sessionService;
+
+    private UUID film;
+    private UUID hall;
+    private LocalDateTime tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        film = fixtures.film();
+        hall = fixtures.hall(2);
+        tomorrow = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void creatingASessionMaterialisesTicketsInOneStatementRegardlessOfHallSize() {
+        UUID smallHall = fixtures.hall(1);
+        UUID largeHall = fixtures.hall(LARGE_HALL_SEATS);
+
+        long smallStatements = countStatements(() -> sessionService.createSession(new CreateSessionDTO(film, smallHall, date(tomorrow), null)));
+        long largeStatements = countStatements(() -> sessionService.createSession(new CreateSessionDTO(film, largeHall, date(tomorrow), null)));
+
+        // Load the film, the hall and its timeline, insert the session, insert its tickets, refresh the seat map
+        assertThat(largeStatements).isEqualTo(6);
+        assertThat(smallStatements).isEqualTo(largeStatements);
+        assertThat(statistics().getEntityInsertCount()).isEqualTo(1);
+        assertThat(fixtures.jdbc().queryForObject(
+                "select count(*) from tickets t join sessions s on s.id = t.session_id where s.hall_id = ?", Integer.class, largeHall))
+                .isEqualTo(LARGE_HALL_SEATS);
+    }
+
+    @Test
+    void periodicCreationSkipsConflictingDaysAndCreatesTheRest() {
+        UUID existing = fixtures.session(film, hall, tomorrow.plusDays(1).plusHours(1));
+
+        PeriodicSessionsResultDTO result = sessionService.createPeriodicSessions(new CreateSessionDTO(film, hall, date(tomorrow),
+                new PeriodicSessionConfigDTO(SessionCreatePeriod.EVERY_DAY, date(tomorrow.plusDays(3)))));
+
+        assertThat(result.created()).hasSize(3);
+        assertThat(result.conflicts()).singleElement().satisfies(conflict -> {
+            assertThat(conflict.startAt()).isEqualTo(date(tomorrow.plusDays(1)));
+            assertThat(conflict.conflictingSessionId()).isEqualTo(existing);
+            assertThat(conflict.reason()).isEqualTo("Session overlaps with an existing session");
+        });
+        assertThat(sessionCount()).isEqualTo(4);
+        assertThat(fixtures.jdbc().queryForObject(
+                "select count(*) from tickets t join sessions s on s.id = t.session_id where s.hall_id = ?", Integer.class, hall))
+                .isEqualTo(8);
+    }
+
+    @Test
+    void periodicCreationDoesNotConflictWithItself() {
+        PeriodicSessionsResultDTO result = sessionService.createPeriodicSessions(new CreateSessionDTO(film, hall, date(tomorrow),
+                new PeriodicSessionConfigDTO(SessionCreatePeriod.EVERY_WEEK, date(tomorrow.plusWeeks(2)))));
+
+        assertThat(result.created()).hasSize(3);
+        assertThat(result.conflicts()).isEmpty();
+    }
+
+    @Test
+    void databaseRejectsOverlapMissingFromTheCachedTimeline() {
+        sessionService.createSession(new CreateSessionDTO(film, hall, date(tomorrow), null));
+        // Created by another instance, so this instance's timeline does not know about it
+        fixtures.session(film, hall, tomorrow.plusHours(3));
+
+        CreateSessionDTO overlapping = new CreateSessionDTO(film, hall, date(tomorrow.plusHours(4)), null);
+
+        assertThatThrownBy(() -> sessionService.createSession(overlapping)).isInstanceOf(ConflictException.class);
+        // The rejected timeline was dropped, so the retry sees the other instance's session
+        assertThatThrownBy(() -> sessionService.createSession(overlapping)).isInstanceOf(BadRequestException.class);
+        assertThat(sessionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void databaseRejectsPeriodicSessionsOverlappingUnknownSession() {
+        sessionService.createSession(new CreateSessionDTO(film, hall, date(tomorrow.plusDays(5)), null));
+        fixtures.session(film, hall, tomorrow.plusDays(1));
+
+        assertThatThrownBy(() -> sessionService.createPeriodicSessions(new CreateSessionDTO(film, hall, date(tomorrow),
+                new PeriodicSessionConfigDTO(SessionCreatePeriod.EVERY_DAY, date(tomorrow.plusDays(2))))))
+                .isInstanceOf(ConflictException.class);
+        assertThat(sessionCount()).isEqualTo(2);
+    }
+
+    private int sessionCount() {
+        return fixtures.jdbc().queryForObject("select count(*) from sessions where hall_id = ?", Integer.class, hall);
+    }
+
+    private static Date date(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
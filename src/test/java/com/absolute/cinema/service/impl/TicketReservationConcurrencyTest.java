@@ -0,0 +1,69 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.common.exception.custom.ConflictException;
+import com.absolute.cinema.entity.User;
+import com.absolute.cinema.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketReservationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int CONTENDERS = 200;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Test
+    void exactlyOneOfManyConcurrentReservationsWins() throws Exception {
+        UUID ticketId = fixtures.tickets(fixtures.session(1)).getFirst();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            users.add(fixtures.user());
+        }
+
+        // Every contender is parked on the latch before any is released; virtual threads then
+        // queue on the connection pool, so the database sees as many racers as the pool allows
+        CountDownLatch ready = new CountDownLatch(CONTENDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> attempts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (User user : users) {
+                attempts.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return ticketService.reserveTicket(ticketId, user);
+                }));
+            }
+            ready.await();
+            start.countDown();
+        }
+
+        int winners = 0;
+        int conflicts = 0;
+        for (Future<?> attempt : attempts) {
+            try {
+                attempt.get();
+                winners++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                conflicts++;
+            }
+        }
+
+        assertThat(winners).isEqualTo(1);
+        assertThat(conflicts).isEqualTo(CONTENDERS - 1);
+        assertThat(fixtures.ticketStatus(ticketId)).isEqualTo("RESERVED");
+    }
+}
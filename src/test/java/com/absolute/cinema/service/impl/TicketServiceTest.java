@@ -0,0 +1,71 @@
+package com.absolute.cinema.service.impl;
+
+import com.absolute.cinema.PostgresIntegrationTest;
+import com.absolute.cinema.controller.TicketController;
+import com.absolute.cinema.dto.ReserveTicketsDTO;
+import com.absolute.cinema.dto.TicketConflictDTO;
+import com.absolute.cinema.dto.TicketDTO;
+import com.absolute.cinema.dto.TicketReservationResultDTO;
+import com.absolute.cinema.entity.Ticket;
+import com.absolute.cinema.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TicketServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TicketController ticketController;
+
+    @Test
+    void batchReservesEveryTicketInRequestOrder() {
+        UUID session = fixtures.session(3);
+        List<UUID> tickets = fixtures.tickets(session).reversed();
+
+        ResponseEntity<TicketReservationResultDTO> response =
+                ticketController.reserveTickets(session, new ReserveTicketsDTO(tickets), fixtures.user());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().conflicts()).isEmpty();
+        assertThat(response.getBody().reserved()).extracting(TicketDTO::id).containsExactlyElementsOf(tickets);
+        assertThat(response.getBody().reserved()).extracting(TicketDTO::status).containsOnly(Ticket.Status.RESERVED);
+        assertThat(tickets).allSatisfy(id -> assertThat(fixtures.ticketStatus(id)).isEqualTo("RESERVED"));
+    }
+
+    @Test
+    void batchWithUnavailableTicketsReportsEachConflictAndReservesNothing() {
+        UUID session = fixtures.session(3);
+        List<UUID> tickets = fixtures.tickets(session);
+        UUID held = tickets.get(0);
+        UUID sold = tickets.get(1);
+        UUID free = tickets.get(2);
+        UUID foreign = fixtures.tickets(fixtures.session(1)).getFirst();
+        User other = fixtures.user();
+        fixtures.reserve(held, other, null, LocalDateTime.now().plusMinutes(10));
+        fixtures.sell(sold, fixtures.purchase(other, "PAID"));
+
+        ResponseEntity<TicketReservationResultDTO> response = ticketController.reserveTickets(
+                session, new ReserveTicketsDTO(List.of(free, held, sold, foreign)), fixtures.user());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().reserved()).isEmpty();
+        assertThat(response.getBody().conflicts())
+                .extracting(TicketConflictDTO::ticketId, TicketConflictDTO::status)
+                .containsExactly(
+                        tuple(held, Ticket.Status.RESERVED),
+                        tuple(sold, Ticket.Status.SOLD),
+                        tuple(foreign, null));
+        assertThat(response.getBody().conflicts()).allSatisfy(conflict ->
+                assertThat(conflict.reason()).contains(conflict.ticketId().toString()));
+        assertThat(fixtures.ticketStatus(free)).isEqualTo("AVAILABLE");
+        assertThat(fixtures.ticketStatus(foreign)).isEqualTo("AVAILABLE");
+    }
+}